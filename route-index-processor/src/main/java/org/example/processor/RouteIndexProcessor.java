@@ -0,0 +1,199 @@
+package org.example.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Génère l'index des routes (META-INF/org.example/routes.idx) à la compilation:
+ * une ligne par méthode de contrôleur mappée.
+ *
+ *   org.example.test.ProductController GET /products/{id} get
+ *
+ * Le framework charge alors les contrôleurs listés sans parcourir le classpath
+ * (org.example.outils.RouteIndex). Les annotations sont reconnues par leur nom:
+ * le processeur ne dépend pas du framework.
+ *
+ * Compilation incrémentale: les lignes de l'index précédent sont conservées pour
+ * les contrôleurs qui n'ont pas été recompilés et qui existent encore.
+ */
+@SupportedAnnotationTypes({
+        "org.example.annotation.Controller",
+        "org.example.annotation.GetMapping",
+        "org.example.annotation.PostMapping",
+        "org.example.annotation.PutMapping",
+        "org.example.annotation.DeleteMapping",
+        "org.example.annotation.Url"
+})
+public class RouteIndexProcessor extends AbstractProcessor {
+    static final String RESOURCE = "META-INF/org.example/routes.idx";
+
+    private static final String CONTROLLER = "org.example.annotation.Controller";
+    private static final String URL = "org.example.annotation.Url";
+    // ordre du scan à l'exécution: la dernière annotation HTTP trouvée l'emporte
+    private static final String[][] HTTP_MAPPINGS = {
+            {"org.example.annotation.GetMapping", "GET"},
+            {"org.example.annotation.PostMapping", "POST"},
+            {"org.example.annotation.PutMapping", "PUT"},
+            {"org.example.annotation.DeleteMapping", "DELETE"},
+    };
+
+    /** Contrôleur (nom binaire) -> lignes de l'index. */
+    private final Map<String, List<String>> routes = new TreeMap<>();
+    private final Set<String> processed = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            write();
+            return false;
+        }
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement controller = elements.getTypeElement(CONTROLLER);
+        if (controller == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(controller)) {
+            if (element instanceof TypeElement) {
+                TypeElement type = (TypeElement) element;
+                String name = elements.getBinaryName(type).toString();
+                processed.add(name);
+                List<String> lines = routesOf(type, name);
+                if (lines.isEmpty()) {
+                    routes.remove(name);
+                } else {
+                    routes.put(name, lines);
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<String> routesOf(TypeElement type, String name) {
+        List<String> lines = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            String httpMethod = null;
+            String url = null;
+            for (String[] mapping : HTTP_MAPPINGS) {
+                String value = annotationValue(method, mapping[0]);
+                if (value != null) {
+                    httpMethod = mapping[1];
+                    url = value;
+                }
+            }
+            if (httpMethod == null) {
+                url = annotationValue(method, URL);
+                httpMethod = url != null ? "GET" : null;
+            }
+            if (httpMethod != null) {
+                lines.add(name + " " + httpMethod + " " + url + " " + method.getSimpleName());
+            }
+        }
+        return lines;
+    }
+
+    private static String annotationValue(ExecutableElement method, String annotation) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!type.getQualifiedName().contentEquals(annotation)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    return String.valueOf(entry.getValue().getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    private void write() {
+        Filer filer = processingEnv.getFiler();
+        Map<String, List<String>> index = new TreeMap<>();
+        readPrevious(filer, index);
+        index.putAll(routes);
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", RESOURCE);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Index des routes généré par RouteIndexProcessor (ne pas modifier)\n");
+                for (List<String> lines : index.values()) {
+                    for (String line : lines) {
+                        writer.write(line);
+                        writer.write('\n');
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Impossible d'écrire " + RESOURCE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lignes de l'index existant pour les contrôleurs non recompilés et toujours présents.
+     */
+    private void readPrevious(Filer filer, Map<String, List<String>> index) {
+        Elements elements = processingEnv.getElementUtils();
+        try {
+            FileObject previous = filer.getResource(StandardLocation.CLASS_OUTPUT, "", RESOURCE);
+            try (Reader reader = previous.openReader(true);
+                 BufferedReader lines = new BufferedReader(reader)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.isBlank() || line.startsWith("#")) {
+                        continue;
+                    }
+                    int space = line.indexOf(' ');
+                    String name = space > 0 ? line.substring(0, space) : line;
+                    if (processed.contains(name)) {
+                        continue;
+                    }
+                    TypeElement type = elements.getTypeElement(name.replace('$', '.'));
+                    if (type != null && isController(type)) {
+                        index.computeIfAbsent(name, k -> new ArrayList<>()).add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // pas d'index précédent: compilation complète
+        }
+    }
+
+    private static boolean isController(TypeElement type) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotation.getQualifiedName().contentEquals(CONTROLLER)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
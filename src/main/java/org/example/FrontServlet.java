@@ -7,7 +7,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Map;
@@ -29,14 +28,17 @@ public class FrontServlet extends HttpServlet {
             // Ne pas essayer de cast en MethodInfo car StartupListener stock maintenant des MethodMapping
             Object attr = getServletContext().getAttribute(StartupListener.METHOD_MAPPINGS_KEY);
             if (attr instanceof Map) {
-                System.out.println("✅ [FrontServlet] Utilisation des mappings du StartupListener");
+                FrameworkLog.info("✅ [FrontServlet] Utilisation des mappings du StartupListener");
             } else {
-                System.out.println("⚠️  [FrontServlet] StartupListener mappings introuvables");
+                FrameworkLog.warn("⚠️  [FrontServlet] StartupListener mappings introuvables");
             }
+
+            // Paramètres du framework (context-param + init-param du servlet)
+            FrameworkConfig config = FrameworkConfig.load(getServletConfig());
+            RouteCache.install(getServletContext(), config);
             
         } catch (Exception ex) {
-            System.err.println("❌ [FrontServlet] ControllerScanner init error: " + ex.getMessage());
-            ex.printStackTrace();
+            FrameworkLog.error("❌ [FrontServlet] ControllerScanner init error: " + ex.getMessage(), ex);
         }
     }
 
@@ -82,15 +84,32 @@ public class FrontServlet extends HttpServlet {
         // Sprint 7: Déléguer à UrlDispatcher avec la méthode HTTP
         Object result = UrlDispatcher.handleRequestWithMethod(path, getServletContext(), req, httpMethod);
 
+        // Contrôleur asynchrone (CompletableFuture): thread du conteneur libéré, réponse écrite à la fin
+        if (result instanceof AsyncResult) {
+            ((AsyncResult) result).dispatch(req, res,
+                    (request, response, value) -> render(request, response, value, httpMethod, path), true);
+            return;
+        }
+        try {
+            render(req, res, result, httpMethod, path);
+        } finally {
+            // réponse écrite: fin de la cloison @ConcurrencyLimit
+            UrlDispatcher.responseWritten(req);
+        }
+    }
+
+    private void render(HttpServletRequest req, HttpServletResponse res, Object result, String httpMethod, String path)
+            throws ServletException, IOException {
+        // Réponse @Cached: octets déjà sérialisés
+        if (result instanceof ResponseCache.Entry) {
+            ((ResponseCache.Entry) result).writeTo(req, res);
+            return;
+        }
+
         // Sprint 9: si JsonResponse -> écrire JSON et ne pas dispatcher
         if (result instanceof JsonResponse) {
-            JsonResponse json = (JsonResponse) result;
-            res.setContentType("application/json;charset=UTF-8");
-            try {
-                // Utiliser le code défini dans la réponse (200 par défaut)
-                res.setStatus(json.getCode());
-            } catch (Throwable ignored) {}
-            res.getWriter().write(json.toJson());
+            // Écriture en flux UTF-8 avec le code défini dans la réponse (200 par défaut)
+            ((JsonResponse) result).writeTo(req, res);
             return;
         }
 
@@ -99,15 +118,11 @@ public class FrontServlet extends HttpServlet {
             return;
         }
 
-        // Sinon, afficher le résultat textuel ou message d'absence
-        try (PrintWriter out = res.getWriter()) {
-            res.setContentType("text/plain;charset=UTF-8");
-            if (result == null) {
-                out.println("Aucune correspondance trouvée pour: " + httpMethod + " " + path);
-            } else {
-                out.println(result.toString());
-            }
-        }
+        // Sinon, afficher le résultat textuel ou message d'absence (compressé si négocié)
+        String text = result == null
+                ? "Aucune correspondance trouvée pour: " + httpMethod + " " + path
+                : result.toString();
+        ResponseBody.writeText(req, res, text + "\n");
     }
 
     private void customServe(HttpServletRequest req, HttpServletResponse res) throws IOException {
@@ -123,21 +138,27 @@ public class FrontServlet extends HttpServlet {
     private boolean handleMappedMethod(HttpServletRequest req, HttpServletResponse res, Method m) throws IOException {
         Class<?> cls = m.getDeclaringClass();
 
+        ControllerProvider provider = null;
+        Object target = null;
         try {
-            Object target = Modifier.isStatic(m.getModifiers()) ? null : cls.getDeclaredConstructor().newInstance();
-            m.setAccessible(true);
+            if (!Modifier.isStatic(m.getModifiers())) {
+                provider = controllerProvider(cls);
+                target = provider.acquire();
+            }
+            // Invoker préparé une seule fois par méthode (plus de setAccessible à chaque appel)
+            ControllerInvoker invoker = ControllerInvoker.of(m);
 
             Class<?>[] params = m.getParameterTypes();
             Object result = null;
 
             if (params.length == 0) {
-                result = m.invoke(target);
+                result = invoker.invoke(target, new Object[0]);
             } else if (params.length == 1 && HttpServletRequest.class.isAssignableFrom(params[0])) {
-                result = m.invoke(target, req);
+                result = invoker.invoke(target, new Object[] { req });
             } else if (params.length == 2
                     && HttpServletRequest.class.isAssignableFrom(params[0])
                     && HttpServletResponse.class.isAssignableFrom(params[1])) {
-                result = m.invoke(target, req, res);
+                result = invoker.invoke(target, new Object[] { req, res });
             } else {
                 try (PrintWriter out = res.getWriter()) {
                     res.setContentType("text/plain;charset=UTF-8");
@@ -164,22 +185,30 @@ public class FrontServlet extends HttpServlet {
                 }
             }
 
-        } catch (InvocationTargetException ite) {
-            try (PrintWriter out = res.getWriter()) {
-                res.setContentType("text/plain;charset=UTF-8");
-                out.println("Erreur invocation: " + ite.getTargetException());
-            }
-            res.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         } catch (Exception ex) {
             try (PrintWriter out = res.getWriter()) {
                 res.setContentType("text/plain;charset=UTF-8");
                 out.println("Erreur invocation: " + ex.toString());
             }
             res.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } finally {
+            if (provider != null) {
+                provider.release(target);
+            }
         }
         return true;
     }
 
+    private ControllerProvider controllerProvider(Class<?> cls) {
+        Object attr = getServletContext().getAttribute(ControllerRegistry.CONTROLLER_REGISTRY_KEY);
+        ControllerRegistry registry = attr instanceof ControllerRegistry ? (ControllerRegistry) attr : null;
+        if (registry == null) {
+            registry = ControllerRegistry.build(null);
+            getServletContext().setAttribute(ControllerRegistry.CONTROLLER_REGISTRY_KEY, registry);
+        }
+        return registry.provider(cls);
+    }
+
     private void handleReturnValue(PrintWriter out, Method m, Object result) {
         Class<?> returnType = m.getReturnType();
         if (returnType == String.class) {
@@ -0,0 +1,27 @@
+package org.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Méthode (ou contrôleur entier) qui bloque: JDBC, fichiers, appels HTTP synchrones.
+ *
+ * Sur Java 21+, l'invocation est exécutée sur un thread virtuel et la requête passe en
+ * traitement asynchrone: le thread du conteneur est libéré pendant l'attente.
+ * Sur Java 17, la méthode est invoquée normalement sur le thread du conteneur.
+ *
+ * Exemple:
+ *   @GetMapping("/reports/{id}") @JSON @Blocking(maxConcurrent = 500)
+ *   public Report report(int id) { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Blocking {
+    /** Invocations simultanées maximales pour la route; au-delà: 503. */
+    int maxConcurrent() default 1000;
+
+    /** Durée au-delà de laquelle une invocation est comptée comme longue, en millisecondes. */
+    long slowMs() default 1000;
+}
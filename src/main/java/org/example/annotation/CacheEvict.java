@@ -0,0 +1,23 @@
+package org.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Invalide le cache de routes GET @Cached quand la méthode (POST, PUT, DELETE...) réussit.
+ *
+ * value: patterns des routes GET concernées (par défaut le pattern de la méthode elle-même).
+ * Les paramètres d'URL de même nom sont repris de la requête courante: un
+ * PUT /products/{id} n'invalide que GET /products/{id} pour cet id; un pattern dont
+ * un paramètre est inconnu (ou sans paramètre, comme /products) est vidé entièrement.
+ *
+ * Exemple:
+ *   @PutMapping("/products/{id}") @CacheEvict({"/products/{id}", "/products"})
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CacheEvict {
+    String[] value() default {};
+}
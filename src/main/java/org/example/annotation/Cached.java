@@ -0,0 +1,31 @@
+package org.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Met en cache la réponse sérialisée d'une méthode @GetMapping + @JSON.
+ *
+ * Clé: chemin (donc les paramètres d'URL) + paramètres de requête listés dans
+ * {@link #params()} + codage négocié (gzip, deflate ou aucun).
+ *
+ * Exemple:
+ *   @GetMapping("/products/{id}") @JSON @Cached(ttl = 30, params = {"lang"})
+ *   public Product get(int id, String lang) { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cached {
+    /** Durée de vie d'une entrée, en secondes. */
+    int ttl() default 60;
+
+    int maxEntries() default 1000;
+
+    /** Taille totale maximale des corps en cache pour la route, en octets. */
+    int maxBytes() default 16 * 1024 * 1024;
+
+    /** Paramètres de requête (?lang=...) qui font partie de la clé; les autres sont ignorés. */
+    String[] params() default {};
+}
@@ -0,0 +1,37 @@
+package org.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Cloison (bulkhead) d'une route: nombre maximal de requêtes traitées simultanément.
+ * Au-delà, la requête est refusée immédiatement (503 + Retry-After), sans file d'attente:
+ * une route lente ne peut plus occuper tous les threads du conteneur.
+ *
+ * Sur une méthode ou sur le contrôleur (chaque route a alors sa propre limite).
+ *
+ * Exemples:
+ *   @GetMapping("/search") @JSON @ConcurrencyLimit(20)                  // limite fixe
+ *   @GetMapping("/report") @JSON @ConcurrencyLimit(adaptive = true, max = 200)
+ *
+ * adaptive = true: la limite part de value() (ou min) et suit la latence observée
+ * (gradient: elle baisse quand la latence récente dépasse la latence de référence,
+ * remonte tant qu'elle reste stable), entre min() et max().
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ConcurrencyLimit {
+    /** Limite fixe, ou limite initiale si adaptive. */
+    int value() default 100;
+
+    boolean adaptive() default false;
+
+    int min() default 4;
+
+    int max() default 1000;
+
+    /** Valeur de l'en-tête Retry-After d'un refus, en secondes. */
+    int retryAfter() default 1;
+}
@@ -8,4 +8,13 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
 public @interface Controller {
+    /**
+     * Cycle de vie des instances (PROTOTYPE par défaut: une instance par requête)
+     */
+    Scope scope() default Scope.PROTOTYPE;
+
+    /**
+     * Nombre maximal d'instances inactives conservées pour Scope.POOLED
+     */
+    int poolSize() default 16;
 }
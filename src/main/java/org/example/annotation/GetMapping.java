@@ -11,9 +11,14 @@ import java.lang.annotation.Target;
  * Exemple:
  *   @GetMapping("/users/{id}")
  *   public String getUser(int id) { ... }
+ *
+ * coalesce = true (méthodes @JSON): les requêtes identiques simultanées (même chemin,
+ * mêmes paramètres) partagent une seule invocation et sa réponse sérialisée.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface GetMapping {
     String value();
+
+    boolean coalesce() default false;
 }
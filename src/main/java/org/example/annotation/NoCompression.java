@@ -0,0 +1,15 @@
+package org.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Désactive la compression gzip/deflate des réponses de la méthode
+ * (ou de toutes les méthodes du contrôleur si placée sur la classe).
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface NoCompression {
+}
@@ -0,0 +1,36 @@
+package org.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limite de débit d'une route, par client: au plus rate() requêtes par seconde en
+ * régime établi, avec des rafales de burst() requêtes. Au-delà: 429 Too Many Requests
+ * (en-têtes Retry-After et RateLimit-*).
+ *
+ * Clé du client, key():
+ *   "ip"              adresse du client (getRemoteAddr)
+ *   "header:X-Api-Key" valeur d'un en-tête
+ *   "param:userId"    paramètre d'URL ({userId}) ou de requête (?userId=)
+ * Une clé absente (en-tête manquant...) partage un seul compteur.
+ *
+ * Exemple:
+ *   @PostMapping("/orders") @JSON @RateLimit(rate = 5, burst = 20, key = "header:X-Api-Key")
+ *   public Order create(@RequestBody Order order) { ... }
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RateLimit {
+    /** Requêtes par seconde. */
+    double rate();
+
+    /** Requêtes acceptées d'un coup après une période calme (0 = arrondi supérieur de rate, au moins 1). */
+    int burst() default 0;
+
+    String key() default "ip";
+
+    /** Nombre maximal de clients suivis pour la route. */
+    int maxKeys() default 10000;
+}
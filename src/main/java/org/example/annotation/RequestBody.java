@@ -0,0 +1,19 @@
+package org.example.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Argument lié depuis le corps JSON de la requête (POJO, record, Map, List...).
+ * Taille et profondeur maximales: context-param requestBody.maxBytes / requestBody.maxDepth.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface RequestBody {
+    /**
+     * Si vrai, un corps absent ou vide est une erreur 400 (sinon l'argument vaut null)
+     */
+    boolean required() default true;
+}
@@ -0,0 +1,22 @@
+package org.example.annotation;
+
+/**
+ * Cycle de vie des instances d'un contrôleur (voir {@link Controller#scope()}).
+ */
+public enum Scope {
+    /**
+     * Une seule instance créée au démarrage et partagée par toutes les requêtes
+     * (le contrôleur doit être sans état ou thread-safe).
+     */
+    SINGLETON,
+
+    /**
+     * Une nouvelle instance par requête (comportement historique).
+     */
+    PROTOTYPE,
+
+    /**
+     * Instances réutilisées depuis un pool borné: une instance ne sert qu'à une requête à la fois.
+     */
+    POOLED
+}
@@ -0,0 +1,340 @@
+package org.example.outils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.annotation.RequestBody;
+import org.example.annotation.RequestParam;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Liaison d'un argument de méthode de contrôleur, préparée au scan.
+ *
+ * Le plan d'une méthode ({@link #plan(Method, List)}) contient un binder par argument;
+ * la réflexion (types, annotations, noms) n'a lieu qu'à ce moment-là. Pendant la
+ * requête, {@link #bindAll(ArgumentBinder[], HttpServletRequest, RouteMatch)} n'est
+ * qu'une boucle sur ce tableau.
+ *
+ * Ordre de priorité (Sprint 6-ter), pour chaque argument:
+ *   1) HttpServletRequest / @RequestBody (corps JSON) / Map (Sprint 8-bis)
+ *   2) paramètre d'URL de même nom ({id} -> argument "id"), lié par index
+ *   3) @RequestParam("clé") (Sprint 6-bis)
+ *   4) paramètre de requête portant le nom de l'argument (Sprint 6)
+ * Les tableaux et List/Set/Collection reçoivent toutes les valeurs du paramètre.
+ * Un POJO / record sans convertisseur est lié depuis ses propriétés ({@link BeanBinder}):
+ * nom=..., adresse.ville=..., lignes[0].qte=... (préfixe "clé." avec @RequestParam("clé")).
+ */
+public abstract class ArgumentBinder {
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final ArgumentBinder[] NO_BINDERS = new ArgumentBinder[0];
+
+    /**
+     * @param request requête courante (peut être null)
+     * @param match positions des paramètres d'URL (peut être null)
+     */
+    public abstract Object bind(HttpServletRequest request, RouteMatch match);
+
+    public static ArgumentBinder[] plan(Method method, List<String> urlParamNames) {
+        Parameter[] params = method.getParameters();
+        if (params.length == 0) {
+            return NO_BINDERS;
+        }
+        ArgumentBinder[] binders = new ArgumentBinder[params.length];
+        for (int i = 0; i < params.length; i++) {
+            binders[i] = binderFor(params[i], urlParamNames);
+        }
+        return binders;
+    }
+
+    public static Object[] bindAll(ArgumentBinder[] binders, HttpServletRequest request, RouteMatch match) {
+        if (binders.length == 0) {
+            return NO_ARGS;
+        }
+        Object[] args = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            args[i] = binders[i].bind(request, match);
+        }
+        return args;
+    }
+
+    private static ArgumentBinder binderFor(Parameter param, List<String> urlParamNames) {
+        Class<?> type = param.getType();
+        if (type == HttpServletRequest.class) {
+            return new RequestBinder();
+        }
+        if (param.isAnnotationPresent(RequestBody.class)) {
+            return new RequestBodyBinder(param.getParameterizedType(), param.getAnnotation(RequestBody.class).required());
+        }
+        if (type == Map.class) {
+            return new ParameterMapBinder();
+        }
+        ConverterRegistry converters = ConverterRegistry.getDefault();
+        RequestParam requestParam = param.getAnnotation(RequestParam.class);
+        String key = requestParam != null ? requestParam.value() : param.getName();
+
+        // Tableaux et collections: valeurs répétées (?tag=a&tag=b) ou objets indexés (items[0].qty)
+        Class<?> elementType = elementType(type, param.getParameterizedType());
+        if (elementType != null) {
+            if (BeanBinder.isBean(elementType, converters)) {
+                return BeanBinder.forElements(key, type, elementType);
+            }
+            return new MultiValueBinder(key, type, elementType, converters.resolve(elementType));
+        }
+
+        int urlIndex = urlParamNames != null ? urlParamNames.indexOf(param.getName()) : -1;
+        if (urlIndex >= 0) {
+            return new UrlParamBinder(urlIndex, type, converters.resolve(type));
+        }
+        // POJO / record sans convertisseur: lié propriété par propriété
+        if (BeanBinder.isBean(type, converters)) {
+            String prefix = requestParam != null && !requestParam.value().isEmpty() ? requestParam.value() + "." : "";
+            return BeanBinder.forBean(type, prefix);
+        }
+        return new QueryParamBinder(key, requestParam != null, type, converters.resolve(type));
+    }
+
+    /**
+     * Type des éléments pour un tableau ou une List/Set/Collection (String si non paramétré), sinon null.
+     */
+    static Class<?> elementType(Class<?> type, Type generic) {
+        if (type.isArray()) {
+            return type.getComponentType();
+        }
+        if (type != List.class && type != Collection.class && type != Set.class) {
+            return null;
+        }
+        if (generic instanceof ParameterizedType) {
+            Type arg = ((ParameterizedType) generic).getActualTypeArguments()[0];
+            if (arg instanceof Class) {
+                return (Class<?>) arg;
+            }
+        }
+        return String.class;
+    }
+
+    static Object convert(String value, Class<?> type, TypeConverter<?> converter) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return converter.convert(value);
+        } catch (Exception e) {
+            FrameworkLog.warn(() -> "⚠️ [ArgumentBinder] Conversion échouée pour valeur '" + value + "' en " + type.getSimpleName());
+            return null;
+        }
+    }
+
+    /**
+     * Injection de la requête elle-même.
+     */
+    static final class RequestBinder extends ArgumentBinder {
+        @Override
+        public Object bind(HttpServletRequest request, RouteMatch match) {
+            return request;
+        }
+    }
+
+    /**
+     * SPRINT 8-BIS: Map<String, Object> depuis request.getParameterMap().
+     * Une seule valeur -> String, plusieurs valeurs -> String[] (checkboxes, select multiple...).
+     */
+    static final class ParameterMapBinder extends ArgumentBinder {
+        @Override
+        public Object bind(HttpServletRequest request, RouteMatch match) {
+            if (request == null) {
+                return null;
+            }
+            FrameworkLog.debug("🗺️ [UrlDispatcher] Sprint 8-BIS: Transformation des paramètres en Map<String, Object>");
+            Map<String, Object> paramMap = new java.util.HashMap<>();
+            for (Map.Entry<String, String[]> entry : request.getParameterMap().entrySet()) {
+                String key = entry.getKey();
+                String[] values = entry.getValue();
+                Object value = (values != null && values.length == 1) ? values[0] : values;
+                paramMap.put(key, value);
+
+                if (values != null && values.length > 1) {
+                    FrameworkLog.debug(() -> "   └─ " + key + " (multi) = " + java.util.Arrays.toString(values));
+                } else {
+                    FrameworkLog.debug(() -> "   └─ " + key + " = " + value);
+                }
+            }
+            return paramMap;
+        }
+    }
+
+    /**
+     * Paramètre d'URL ({id}) lu par index dans le RouteMatch.
+     * Les entiers sont convertis directement depuis la portion du chemin, sans sous-chaîne,
+     * sauf si un convertisseur personnalisé (SPI) remplace celui du framework.
+     */
+    static final class UrlParamBinder extends ArgumentBinder {
+        private final int index;
+        private final Class<?> type;
+        private final TypeConverter<?> converter;
+        private final boolean isInt;
+        private final boolean isLong;
+
+        UrlParamBinder(int index, Class<?> type, TypeConverter<?> converter) {
+            this.index = index;
+            this.type = type;
+            this.converter = converter;
+            this.isInt = (type == int.class || type == Integer.class) && converter == ConverterRegistry.INT;
+            this.isLong = (type == long.class || type == Long.class) && converter == ConverterRegistry.LONG;
+        }
+
+        @Override
+        public Object bind(HttpServletRequest request, RouteMatch match) {
+            if (match == null || index >= match.getParameterCount()) {
+                return null;
+            }
+            try {
+                if (isInt) {
+                    return Integer.parseInt(match.getPath(), match.start(index), match.end(index), 10);
+                }
+                if (isLong) {
+                    return Long.parseLong(match.getPath(), match.start(index), match.end(index), 10);
+                }
+            } catch (NumberFormatException e) {
+                FrameworkLog.warn(() -> "⚠️ [ArgumentBinder] Conversion échouée pour valeur '" + match.value(index) + "' en " + type.getSimpleName());
+                return null;
+            }
+            return convert(match.value(index), type, converter);
+        }
+    }
+
+    /**
+     * Paramètre de requête: clé de @RequestParam, sinon nom de l'argument.
+     */
+    static final class QueryParamBinder extends ArgumentBinder {
+        private final String key;
+        private final boolean annotated;
+        private final Class<?> type;
+        private final TypeConverter<?> converter;
+
+        QueryParamBinder(String key, boolean annotated, Class<?> type, TypeConverter<?> converter) {
+            this.key = key;
+            this.annotated = annotated;
+            this.type = type;
+            this.converter = converter;
+        }
+
+        @Override
+        public Object bind(HttpServletRequest request, RouteMatch match) {
+            if (request == null) {
+                return null;
+            }
+            String raw = request.getParameter(key);
+            if (annotated) {
+                FrameworkLog.debug(() -> "   └─ @RequestParam(\"" + key + "\") -> " + raw);
+            } else if (raw != null) {
+                FrameworkLog.debug(() -> "   └─ Query param '" + key + "' -> " + raw);
+            }
+            return convert(raw, type, converter);
+        }
+    }
+
+    /**
+     * Paramètre répété vers tableau (y compris primitif) ou List/Set/Collection.
+     * Les valeurs non convertibles sont ignorées.
+     */
+    static final class MultiValueBinder extends ArgumentBinder {
+        private final String key;
+        private final Class<?> type;
+        private final Class<?> elementType;
+        private final TypeConverter<?> converter;
+
+        MultiValueBinder(String key, Class<?> type, Class<?> elementType, TypeConverter<?> converter) {
+            this.key = key;
+            this.type = type;
+            this.elementType = elementType;
+            this.converter = converter;
+        }
+
+        @Override
+        public Object bind(HttpServletRequest request, RouteMatch match) {
+            if (request == null) {
+                return null;
+            }
+            String[] raw = request.getParameterValues(key);
+            int count = raw != null ? raw.length : 0;
+            if (type.isArray()) {
+                Object array = Array.newInstance(elementType, count);
+                int n = 0;
+                for (int i = 0; i < count; i++) {
+                    Object value = convert(raw[i], elementType, converter);
+                    if (value != null) {
+                        Array.set(array, n++, value);
+                    }
+                }
+                if (n == count) {
+                    return array;
+                }
+                Object trimmed = Array.newInstance(elementType, n);
+                System.arraycopy(array, 0, trimmed, 0, n);
+                return trimmed;
+            }
+            Collection<Object> values = type == Set.class ? new LinkedHashSet<>() : new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Object value = convert(raw[i], elementType, converter);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+            return values;
+        }
+    }
+
+    /**
+     * @RequestBody: corps JSON lu en flux par {@link JsonReader} et lié vers le type de l'argument.
+     * Limites lues dans la configuration: requestBody.maxBytes (défaut 1 Mo), requestBody.maxDepth (défaut 64).
+     */
+    static final class RequestBodyBinder extends ArgumentBinder {
+        static final String MAX_BYTES_PARAM = "requestBody.maxBytes";
+        static final String MAX_DEPTH_PARAM = "requestBody.maxDepth";
+        private static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+        private static final int DEFAULT_MAX_DEPTH = 64;
+
+        private final Type type;
+        private final boolean required;
+
+        RequestBodyBinder(Type type, boolean required) {
+            this.type = type;
+            this.required = required;
+        }
+
+        @Override
+        public Object bind(HttpServletRequest request, RouteMatch match) {
+            if (request == null) {
+                return null;
+            }
+            FrameworkConfig config = FrameworkConfig.get(request.getServletContext());
+            long maxBytes = config.getLong(MAX_BYTES_PARAM, DEFAULT_MAX_BYTES);
+            int maxDepth = config.getInt(MAX_DEPTH_PARAM, DEFAULT_MAX_DEPTH);
+            if (request.getContentLengthLong() > maxBytes) {
+                throw new HttpStatusException(413, "Corps de requête trop volumineux (max " + maxBytes + " octets)");
+            }
+            Object value;
+            try (JsonReader reader = new JsonReader(request.getInputStream(), maxBytes, maxDepth)) {
+                value = reader.readDocument(type);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (value == null && required) {
+                throw new HttpStatusException(400, "Corps de requête JSON requis");
+            }
+            FrameworkLog.debug(() -> "   └─ @RequestBody -> " + (value != null ? value.getClass().getSimpleName() : "null"));
+            return value;
+        }
+    }
+}
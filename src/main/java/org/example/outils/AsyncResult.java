@@ -0,0 +1,162 @@
+package org.example.outils;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Résultat d'une méthode de contrôleur qui retourne un CompletableFuture / CompletionStage.
+ *
+ * UrlDispatcher transforme la valeur (ou l'erreur) comme pour un appel synchrone:
+ * JsonResponse pour une méthode @JSON (erreur: {@link JsonResponse#error(String, int)}),
+ * ModelView sinon. {@link #dispatch} démarre alors un AsyncContext: le thread du
+ * conteneur est libéré et la réponse est écrite par le thread qui termine le future.
+ *
+ * Délai maximal: context-param / init-param {@code async.timeoutMs} (30 s par défaut,
+ * 0 = aucun). Passé ce délai, la réponse est une erreur 504 et le résultat tardif est ignoré.
+ *
+ * Si le servlet ou le filtre n'est pas déclaré {@code <async-supported>true}, le thread
+ * attend le résultat (avec le même délai) puis écrit la réponse normalement.
+ */
+public final class AsyncResult {
+    public static final String TIMEOUT_PARAM = "async.timeoutMs";
+    static final long DEFAULT_TIMEOUT_MS = 30_000;
+
+    /** Écriture du résultat final (JsonResponse, ModelView, texte...) par FrontServlet / FrontFilter. */
+    public interface Renderer {
+        void render(HttpServletRequest request, HttpServletResponse response, Object result)
+                throws IOException, ServletException;
+    }
+
+    private final CompletableFuture<Object> result;
+    private final Supplier<Object> timeoutResult;
+
+    AsyncResult(CompletableFuture<Object> result, Supplier<Object> timeoutResult) {
+        this.result = result;
+        this.timeoutResult = timeoutResult;
+    }
+
+    /**
+     * Écrit le résultat quand il est disponible.
+     * @param forwardViews true pour transmettre un ModelView à sa vue (AsyncContext.dispatch),
+     *                     false pour le confier au renderer comme les autres résultats
+     */
+    public void dispatch(HttpServletRequest request, HttpServletResponse response, Renderer renderer,
+                         boolean forwardViews) throws IOException, ServletException {
+        long timeoutMs = FrameworkConfig.get(request.getServletContext()).getLong(TIMEOUT_PARAM, DEFAULT_TIMEOUT_MS);
+        if (!request.isAsyncSupported()) {
+            FrameworkLog.debug("⚠️ [AsyncResult] async-supported absent: attente sur le thread du conteneur");
+            try {
+                renderer.render(request, response, await(timeoutMs));
+            } finally {
+                UrlDispatcher.responseWritten(request);
+            }
+            return;
+        }
+
+        AsyncContext async;
+        try {
+            async = request.startAsync(request, response);
+        } catch (IllegalStateException e) {
+            ResponseCache.abandon(request);
+            UrlDispatcher.responseWritten(request);
+            throw e;
+        }
+        async.setTimeout(timeoutMs);
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                timeout();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                // connexion perdue: le résultat tardif ne sera pas écrit
+                result.complete(null);
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            // la requête reste valide jusqu'à async.complete(): place @ConcurrencyLimit rendue avant
+            try {
+                if (value == null) {
+                    // rien n'est écrit: les requêtes regroupées (SingleFlight) qui attendent
+                    // cette réponse sont libérées tout de suite
+                    ResponseCache.abandon(request);
+                } else if (forwardViews && value instanceof ModelView && hasView((ModelView) value)) {
+                    forward(async, request, (ModelView) value);
+                    return;
+                } else {
+                    renderer.render(request, response, value);
+                }
+            } catch (Exception | LinkageError e) {
+                FrameworkLog.error("❌ [AsyncResult] Écriture de la réponse impossible: " + e.getMessage(), e);
+                ResponseCache.abandon(request);
+            } finally {
+                UrlDispatcher.responseWritten(request);
+            }
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // déjà terminée par le conteneur (délai, erreur réseau)
+            }
+        });
+    }
+
+    /**
+     * Attente bornée, pour un conteneur sans traitement asynchrone.
+     */
+    private Object await(long timeoutMs) {
+        try {
+            return timeoutMs > 0 ? result.get(timeoutMs, TimeUnit.MILLISECONDS) : result.get();
+        } catch (TimeoutException e) {
+            timeout();
+            return result.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timeout();
+            return result.join();
+        } catch (ExecutionException e) {
+            // le future transformé ne se termine jamais en erreur (voir UrlDispatcher)
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void timeout() {
+        if (result.complete(timeoutResult.get())) {
+            FrameworkLog.warn("⏱️ [AsyncResult] Délai dépassé: réponse 504");
+        }
+    }
+
+    private static boolean hasView(ModelView mv) {
+        return mv.getView() != null && !mv.getView().isEmpty();
+    }
+
+    private static void forward(AsyncContext async, HttpServletRequest request, ModelView mv) {
+        Map<String, Object> data = mv.getData();
+        if (data != null) {
+            data.forEach(request::setAttribute);
+        }
+        String view = mv.getView();
+        async.dispatch(view.startsWith("/") ? view : "/" + view);
+    }
+}
@@ -0,0 +1,289 @@
+package org.example.outils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Liaison d'un argument POJO / record depuis les paramètres de requête.
+ *
+ *   UserForm form             -> name=..., address.city=..., items[0].qty=...
+ *   @RequestParam("user") ... -> user.name=..., user.address.city=...
+ *   @RequestParam("items") List<Item> -> items[0].qty=..., items[1].qty=...
+ *
+ * L'arbre de liaison (une {@link Node} par objet, un {@link Slot} par propriété) est
+ * construit au scan à partir du {@link BeanPlan} de chaque classe; les clés de
+ * paramètres fixes sont précalculées. Seules les clés déclarées par le type sont lues
+ * (getParameter / getParameterValues): getParameterMap() n'est jamais copiée.
+ *
+ * Un objet dont aucune propriété n'est présente vaut null; les indices sont lus
+ * à partir de 0 jusqu'au premier absent.
+ */
+final class BeanBinder extends ArgumentBinder {
+    /** Profondeur maximale d'imbrication (protège contre les types récursifs). */
+    static final int MAX_DEPTH = 8;
+    /** Nombre maximal d'éléments lus pour une propriété indexée. */
+    static final int MAX_INDEX = 256;
+
+    private final Class<?> type;
+    private final Node node;
+    private final Slot slot;
+
+    private BeanBinder(Class<?> type, Node node, Slot slot) {
+        this.type = type;
+        this.node = node;
+        this.slot = slot;
+    }
+
+    /**
+     * Objet lié depuis les clés "prefix" + propriété (prefix vide ou terminé par '.').
+     */
+    static BeanBinder forBean(Class<?> type, String prefix) {
+        return new BeanBinder(type, Node.build(type, prefix, 0), null);
+    }
+
+    /**
+     * Tableau ou collection d'objets liés depuis "key[0].propriété", "key[1].propriété"...
+     */
+    static BeanBinder forElements(String key, Class<?> type, Class<?> elementType) {
+        return new BeanBinder(type, null, new IndexedSlot(0, key, key, type, Node.build(elementType, null, 0)));
+    }
+
+    /**
+     * Vrai si l'élément d'un tableau / d'une collection doit être lié comme objet.
+     */
+    static boolean isBean(Class<?> type, ConverterRegistry converters) {
+        return converters.find(type) == null && BeanPlan.isBeanType(type);
+    }
+
+    @Override
+    public Object bind(HttpServletRequest request, RouteMatch match) {
+        if (request == null) {
+            return null;
+        }
+        Object value = slot != null ? slot.read(request, null) : node.bind(request, null);
+        FrameworkLog.debug(() -> "   └─ Objet " + type.getSimpleName() + (value != null ? " lié" : " absent"));
+        return value;
+    }
+
+    /**
+     * Objet d'un type donné. prefix est fixe (clés précalculées) ou null quand
+     * l'objet est un élément indexé (le préfixe est alors fourni à la liaison).
+     */
+    static final class Node {
+        private final BeanPlan plan;
+        private final Slot[] slots;
+
+        private Node(BeanPlan plan, Slot[] slots) {
+            this.plan = plan;
+            this.slots = slots;
+        }
+
+        static Node build(Class<?> type, String prefix, int depth) {
+            BeanPlan plan = BeanPlan.of(type);
+            ConverterRegistry converters = ConverterRegistry.getDefault();
+            List<Slot> slots = new ArrayList<>();
+            for (BeanPlan.Property property : plan.getProperties()) {
+                Slot slot = slotFor(property, prefix, depth, converters);
+                if (slot != null) {
+                    slots.add(slot);
+                }
+            }
+            return new Node(plan, slots.toArray(new Slot[0]));
+        }
+
+        private static Slot slotFor(BeanPlan.Property property, String prefix, int depth, ConverterRegistry converters) {
+            Class<?> type = property.getType();
+            int index = property.getIndex();
+            String name = property.getName();
+            String key = prefix != null ? prefix + name : null;
+            if (type == Map.class) {
+                return null;
+            }
+            Class<?> elementType = ArgumentBinder.elementType(type, property.getGenericType());
+            if (elementType != null) {
+                if (isBean(elementType, converters)) {
+                    return depth < MAX_DEPTH
+                            ? new IndexedSlot(index, name, key, type, build(elementType, null, depth + 1))
+                            : null;
+                }
+                return new MultiValueSlot(index, name, key, type, elementType, converters.resolve(elementType));
+            }
+            TypeConverter<?> converter = converters.find(type);
+            if (converter != null) {
+                return new ValueSlot(index, name, key, type, converter);
+            }
+            if (BeanPlan.isBeanType(type) && depth < MAX_DEPTH) {
+                String childPrefix = key != null ? key + "." : null;
+                return new NestedSlot(index, name, key, build(type, childPrefix, depth + 1));
+            }
+            return null;
+        }
+
+        /**
+         * @return l'objet, ou null si aucune de ses propriétés n'est présente
+         */
+        Object bind(HttpServletRequest request, String prefix) {
+            Object[] values = new Object[plan.getProperties().length];
+            boolean present = false;
+            for (Slot slot : slots) {
+                Object value = slot.read(request, prefix);
+                if (value != null) {
+                    values[slot.index] = value;
+                    present = true;
+                }
+            }
+            if (!present) {
+                return null;
+            }
+            try {
+                return plan.instantiate(values);
+            } catch (Exception e) {
+                FrameworkLog.warn(() -> "⚠️ [ArgumentBinder] Création de " + plan.getType().getSimpleName() + " échouée: " + e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Propriété à lier: clé précalculée, ou prefix + name pour un élément indexé.
+     */
+    abstract static class Slot {
+        final int index;
+        final String name;
+        final String key;
+
+        Slot(int index, String name, String key) {
+            this.index = index;
+            this.name = name;
+            this.key = key;
+        }
+
+        final String key(String prefix) {
+            return key != null ? key : prefix + name;
+        }
+
+        abstract Object read(HttpServletRequest request, String prefix);
+    }
+
+    static final class ValueSlot extends Slot {
+        private final Class<?> type;
+        private final TypeConverter<?> converter;
+
+        ValueSlot(int index, String name, String key, Class<?> type, TypeConverter<?> converter) {
+            super(index, name, key);
+            this.type = type;
+            this.converter = converter;
+        }
+
+        @Override
+        Object read(HttpServletRequest request, String prefix) {
+            return convert(request.getParameter(key(prefix)), type, converter);
+        }
+    }
+
+    /**
+     * Valeurs simples répétées (tags=a&tags=b) ou indexées (tags[0]=a&tags[1]=b).
+     */
+    static final class MultiValueSlot extends Slot {
+        private final Class<?> type;
+        private final Class<?> elementType;
+        private final TypeConverter<?> converter;
+
+        MultiValueSlot(int index, String name, String key, Class<?> type, Class<?> elementType, TypeConverter<?> converter) {
+            super(index, name, key);
+            this.type = type;
+            this.elementType = elementType;
+            this.converter = converter;
+        }
+
+        @Override
+        Object read(HttpServletRequest request, String prefix) {
+            String k = key(prefix);
+            String[] raw = request.getParameterValues(k);
+            List<Object> values = new ArrayList<>();
+            if (raw != null) {
+                for (String r : raw) {
+                    Object value = convert(r, elementType, converter);
+                    if (value != null) {
+                        values.add(value);
+                    }
+                }
+            } else {
+                for (int i = 0; i < MAX_INDEX; i++) {
+                    String r = request.getParameter(k + "[" + i + "]");
+                    if (r == null) {
+                        break;
+                    }
+                    Object value = convert(r, elementType, converter);
+                    if (value != null) {
+                        values.add(value);
+                    }
+                }
+            }
+            return values.isEmpty() ? null : toContainer(type, elementType, values);
+        }
+    }
+
+    static final class NestedSlot extends Slot {
+        private final Node node;
+
+        NestedSlot(int index, String name, String key, Node node) {
+            super(index, name, key);
+            this.node = node;
+        }
+
+        @Override
+        Object read(HttpServletRequest request, String prefix) {
+            return node.bind(request, key != null ? null : prefix + name + ".");
+        }
+    }
+
+    /**
+     * Objets indexés: key[0].x, key[1].x... jusqu'au premier élément absent.
+     */
+    static final class IndexedSlot extends Slot {
+        private final Class<?> type;
+        private final Node element;
+
+        IndexedSlot(int index, String name, String key, Class<?> type, Node element) {
+            super(index, name, key);
+            this.type = type;
+            this.element = element;
+        }
+
+        @Override
+        Object read(HttpServletRequest request, String prefix) {
+            String k = key(prefix);
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < MAX_INDEX; i++) {
+                Object value = element.bind(request, k + "[" + i + "].");
+                if (value == null) {
+                    break;
+                }
+                values.add(value);
+            }
+            return values.isEmpty() ? null : toContainer(type, element.plan.getType(), values);
+        }
+    }
+
+    private static Object toContainer(Class<?> type, Class<?> elementType, List<Object> values) {
+        if (type.isArray()) {
+            Object array = Array.newInstance(elementType, values.size());
+            for (int i = 0; i < values.size(); i++) {
+                Array.set(array, i, values.get(i));
+            }
+            return array;
+        }
+        if (type == Set.class) {
+            return new LinkedHashSet<>(values);
+        }
+        return values;
+    }
+
+}
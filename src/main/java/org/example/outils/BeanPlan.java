@@ -0,0 +1,241 @@
+package org.example.outils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Plan de construction d'un objet (POJO ou record), calculé une fois par classe.
+ *
+ * POJO: constructeur sans argument + setters publics (ou champs non final en secours),
+ * record: constructeur canonique. Les accès passent par des MethodHandle résolus ici:
+ * aucune réflexion au moment de remplir l'objet.
+ *
+ * Utilisation: remplir un tableau de valeurs indexé comme {@link #getProperties()},
+ * puis {@link #instantiate(Object[])}.
+ */
+public final class BeanPlan {
+    private static final ClassValue<BeanPlan> PLANS = new ClassValue<BeanPlan>() {
+        @Override
+        protected BeanPlan computeValue(Class<?> type) {
+            return new BeanPlan(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final boolean record;
+    private final Property[] properties;
+    private final Map<String, Property> byName;
+    private final MethodHandle constructor;
+    private final String error;
+
+    private BeanPlan(Class<?> type) {
+        this.type = type;
+        this.record = type.isRecord();
+        Property[] props = new Property[0];
+        MethodHandle ctor = null;
+        String failure = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            if (record) {
+                RecordComponent[] components = type.getRecordComponents();
+                props = new Property[components.length];
+                Class<?>[] types = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    types[i] = components[i].getType();
+                    props[i] = new Property(i, components[i].getName(), types[i], components[i].getGenericType(), null);
+                }
+                ctor = lookup.findConstructor(type, MethodType.methodType(void.class, types));
+            } else {
+                Constructor<?> noArg = type.getDeclaredConstructor();
+                ctor = lookup.unreflectConstructor(noArg);
+                props = pojoProperties(type, lookup);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            failure = e.toString();
+        }
+        if (failure != null) {
+            // plan incomplet: ne jamais construire un objet sans ses propriétés
+            ctor = null;
+            props = new Property[0];
+        }
+        this.properties = props;
+        this.constructor = ctor;
+        this.error = failure;
+        Map<String, Property> names = new LinkedHashMap<>();
+        for (Property p : props) {
+            names.put(p.name, p);
+        }
+        this.byName = Collections.unmodifiableMap(names);
+    }
+
+    public static BeanPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /**
+     * Vrai si le type peut être construit par un plan: record, ou classe concrète
+     * avec constructeur sans argument, hors types du JDK.
+     */
+    public static boolean isBeanType(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isEnum() || type.isInterface()
+                || Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+        String name = type.getName();
+        if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jakarta.")) {
+            return false;
+        }
+        return of(type).isUsable();
+    }
+
+    public boolean isUsable() {
+        return constructor != null;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Property[] getProperties() {
+        return properties;
+    }
+
+    public Property getProperty(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Crée l'objet. Pour un POJO, seules les valeurs non null sont affectées
+     * (les valeurs par défaut de la classe sont conservées).
+     */
+    public Object instantiate(Object[] values) throws Exception {
+        if (constructor == null) {
+            throw new IllegalStateException("Type non instanciable " + type.getName() + ": " + error);
+        }
+        try {
+            if (record) {
+                Object[] args = new Object[properties.length];
+                for (int i = 0; i < properties.length; i++) {
+                    Object value = values[i];
+                    args[i] = value != null ? value : defaultValue(properties[i].type);
+                }
+                return constructor.invokeWithArguments(args);
+            }
+            Object target = constructor.invoke();
+            for (int i = 0; i < properties.length; i++) {
+                if (values[i] != null) {
+                    properties[i].setter.invoke(target, values[i]);
+                }
+            }
+            return target;
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        return 0;
+    }
+
+    private static Property[] pojoProperties(Class<?> type, MethodHandles.Lookup lookup) throws IllegalAccessException {
+        Map<String, Property> props = new LinkedHashMap<>();
+        // Setters publics (y compris hérités), résolus depuis leur classe: la classe du DTO
+        // n'a pas besoin d'être publique (classe de paquetage, classe interne non publique)
+        for (Method m : type.getMethods()) {
+            String name = m.getName();
+            if (name.length() > 3 && name.startsWith("set") && m.getParameterCount() == 1
+                    && !Modifier.isStatic(m.getModifiers())) {
+                String prop = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+                MethodHandle setter = lookupFor(m.getDeclaringClass(), type, lookup).unreflect(m)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                props.putIfAbsent(prop, new Property(props.size(), prop, m.getParameterTypes()[0],
+                        m.getGenericParameterTypes()[0], setter));
+            }
+        }
+        // Champs sans setter (classe et superclasses)
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            MethodHandles.Lookup fieldLookup = c == type ? lookup : MethodHandles.privateLookupIn(c, MethodHandles.lookup());
+            for (Field f : c.getDeclaredFields()) {
+                int mod = f.getModifiers();
+                if (Modifier.isStatic(mod) || Modifier.isFinal(mod) || Modifier.isTransient(mod) || f.isSynthetic()
+                        || props.containsKey(f.getName())) {
+                    continue;
+                }
+                MethodHandle setter = fieldLookup.unreflectSetter(f)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                props.put(f.getName(), new Property(props.size(), f.getName(), f.getType(), f.getGenericType(), setter));
+            }
+        }
+        return props.values().toArray(new Property[0]);
+    }
+
+    /**
+     * Lookup privé de la classe qui déclare un membre; lookup public pour une classe dont
+     * le module n'est pas ouvert (classe du JDK).
+     */
+    private static MethodHandles.Lookup lookupFor(Class<?> owner, Class<?> type, MethodHandles.Lookup lookup) {
+        if (owner == type) {
+            return lookup;
+        }
+        try {
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    /**
+     * Propriété d'un plan: nom, type déclaré (et générique) et position dans le tableau de valeurs.
+     */
+    public static final class Property {
+        private final int index;
+        private final String name;
+        private final Class<?> type;
+        private final Type genericType;
+        private final MethodHandle setter;
+
+        Property(int index, String name, Class<?> type, Type genericType, MethodHandle setter) {
+            this.index = index;
+            this.name = name;
+            this.type = type;
+            this.genericType = genericType;
+            this.setter = setter;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public Type getGenericType() {
+            return genericType;
+        }
+    }
+}
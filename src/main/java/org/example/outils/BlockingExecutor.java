@@ -0,0 +1,216 @@
+package org.example.outils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.annotation.Blocking;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exécution des méthodes @Blocking sur des threads virtuels (Java 21+).
+ *
+ * Le projet compile en Java 17: Thread.ofVirtual() est résolu à l'exécution par
+ * MethodHandle. Sans threads virtuels (Java 17), {@link #isOffloaded()} vaut false et la
+ * méthode est invoquée sur le thread du conteneur, comme sans l'annotation.
+ *
+ * Par route:
+ *   - au plus {@link Blocking#maxConcurrent()} invocations simultanées (sémaphore,
+ *     sans attente): au-delà, 503
+ *   - métriques blocking.&lt;route&gt;.active / rejected / completed / slow / pinned
+ *
+ * "pinned": événements JFR jdk.VirtualThreadPinned (thread virtuel bloqué sur son thread
+ * porteur, ex. attente dans un bloc synchronized), attribués à la route par le nom du
+ * thread. Désactivable avec {@code blocking.pinnedEvents=false}.
+ */
+final class BlockingExecutor {
+    static final String PINNED_PARAM = "blocking.pinnedEvents";
+
+    private static final String THREAD_PREFIX = "blocking ";
+    private static final ThreadFactory VIRTUAL_THREADS = virtualThreadFactory();
+    /** Nom de thread -> route, pour attribuer les événements "pinned". */
+    private static final Map<String, BlockingExecutor> ROUTES = new ConcurrentHashMap<>();
+    private static volatile boolean pinnedMonitorStarted;
+    private static AutoCloseable pinnedMonitor;  // RecordingStream, fermé par shutdown()
+
+    private final String threadName;
+    private final Semaphore permits;
+    private final long slowNanos;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder pinned = new LongAdder();
+
+    private BlockingExecutor(String name, Blocking blocking) {
+        this.threadName = THREAD_PREFIX + name;
+        int maxConcurrent = Math.max(1, blocking.maxConcurrent());
+        this.permits = new Semaphore(maxConcurrent);
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(blocking.slowMs());
+        String prefix = "blocking." + name + ".";
+        FrameworkMetrics.register(prefix + "maxConcurrent", () -> maxConcurrent);
+        FrameworkMetrics.register(prefix + "active", () -> maxConcurrent - permits.availablePermits());
+        FrameworkMetrics.register(prefix + "rejected", rejected::sum);
+        FrameworkMetrics.register(prefix + "completed", completed::sum);
+        FrameworkMetrics.register(prefix + "slow", slow::sum);
+        FrameworkMetrics.register(prefix + "pinned", pinned::sum);
+        ROUTES.put(threadName, this);
+    }
+
+    /**
+     * Exécuteur de la route si la méthode ou son contrôleur est @Blocking, sinon null.
+     */
+    static BlockingExecutor of(Method method, String urlPattern, String httpMethod) {
+        Blocking blocking = method.getAnnotation(Blocking.class);
+        if (blocking == null) {
+            blocking = method.getDeclaringClass().getAnnotation(Blocking.class);
+        }
+        if (blocking == null) {
+            return null;
+        }
+        if (VIRTUAL_THREADS == null) {
+            FrameworkLog.info(() -> "ℹ️ [BlockingExecutor] Threads virtuels indisponibles (Java "
+                    + Runtime.version().feature() + "): " + httpMethod + " " + urlPattern + " reste synchrone");
+        }
+        return new BlockingExecutor(httpMethod + " " + urlPattern, blocking);
+    }
+
+    /**
+     * true si les invocations partent sur un thread virtuel (Java 21+).
+     */
+    boolean isOffloaded() {
+        return VIRTUAL_THREADS != null;
+    }
+
+    /**
+     * Lance l'invocation sur un nouveau thread virtuel.
+     * @throws HttpStatusException 503 si la route a atteint maxConcurrent
+     */
+    CompletableFuture<Object> submit(HttpServletRequest request, Callable<Object> invocation) {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            throw new HttpStatusException(503, "Trop de requêtes simultanées pour " + threadName.substring(THREAD_PREFIX.length()));
+        }
+        if (!pinnedMonitorStarted) {
+            startPinnedMonitor(FrameworkConfig.get(request.getServletContext()));
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Thread thread;
+        try {
+            thread = VIRTUAL_THREADS.newThread(() -> run(invocation, future));
+            thread.setName(threadName);
+            thread.start();
+        } catch (RuntimeException | OutOfMemoryError e) {
+            permits.release();
+            rejected.increment();
+            throw new HttpStatusException(503, "Thread virtuel indisponible: " + e.getMessage());
+        }
+        return future;
+    }
+
+    private void run(Callable<Object> invocation, CompletableFuture<Object> future) {
+        long start = System.nanoTime();
+        try {
+            future.complete(invocation.call());
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        } finally {
+            permits.release();
+            completed.increment();
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > slowNanos) {
+                slow.increment();
+                FrameworkLog.debug(() -> "🐢 [BlockingExecutor] " + threadName + ": "
+                        + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms");
+            }
+        }
+    }
+
+    /**
+     * Fabrique de threads virtuels (Thread.ofVirtual().factory()), ou null avant Java 21.
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtual = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            MethodHandle newBuilder = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtual));
+            MethodHandle factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+            return (ThreadFactory) factory.invoke(newBuilder.invoke());
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Abonnement JFR aux événements jdk.VirtualThreadPinned (une fois par JVM), démarré sur
+     * un thread à part: l'ouverture du flux JFR ne retarde pas la première requête.
+     * Le module jdk.jfr peut être absent (JRE réduit): pas de métrique "pinned" dans ce cas.
+     */
+    private static synchronized void startPinnedMonitor(FrameworkConfig config) {
+        if (pinnedMonitorStarted) {
+            return;
+        }
+        pinnedMonitorStarted = true;
+        if (!config.getBoolean(PINNED_PARAM, true)) {
+            return;
+        }
+        Thread starter = new Thread(() -> {
+            try {
+                AutoCloseable stream = PinnedMonitor.start();
+                synchronized (BlockingExecutor.class) {
+                    pinnedMonitor = stream;
+                }
+                FrameworkLog.info("📌 [BlockingExecutor] Suivi JFR des threads virtuels épinglés actif");
+            } catch (Throwable t) {
+                FrameworkLog.warn("⚠️ [BlockingExecutor] Suivi JFR indisponible: " + t.getMessage());
+            }
+        }, "framework-pinned-monitor");
+        starter.setDaemon(true);
+        starter.start();
+    }
+
+    /**
+     * Ferme le flux JFR (arrêt du contexte): son thread n'est pas un démon.
+     */
+    static synchronized void shutdown() {
+        AutoCloseable stream = pinnedMonitor;
+        pinnedMonitor = null;
+        pinnedMonitorStarted = false;
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
+    /**
+     * Classe à part: les types jdk.jfr ne sont chargés qu'ici, à la première utilisation.
+     */
+    private static final class PinnedMonitor {
+        static AutoCloseable start() {
+            jdk.jfr.consumer.RecordingStream stream = new jdk.jfr.consumer.RecordingStream();
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20));
+            stream.onEvent("jdk.VirtualThreadPinned", event -> {
+                jdk.jfr.consumer.RecordedThread thread = event.getThread();
+                BlockingExecutor route = thread != null ? ROUTES.get(String.valueOf(thread.getJavaName())) : null;
+                if (route != null) {
+                    route.pinned.increment();
+                }
+            });
+            stream.startAsync();
+            return stream;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.outils;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Petit pool de tableaux d'octets de taille fixe, sans verrou.
+ *
+ * Pas de ThreadLocal: un tampon emprunté par une requête peut être rendu depuis un
+ * autre thread (réponse asynchrone) et les threads virtuels ne le garderaient pas.
+ * Pool vide: un nouveau tableau est alloué; pool plein: le tableau rendu est abandonné.
+ */
+final class BufferPool {
+    private final int bufferSize;
+    private final AtomicReferenceArray<byte[]> slots;
+
+    BufferPool(int bufferSize, int capacity) {
+        this.bufferSize = bufferSize;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    byte[] acquire() {
+        int start = probe();
+        for (int i = 0; i < slots.length(); i++) {
+            int index = (start + i) % slots.length();
+            byte[] buffer = slots.get(index);
+            if (buffer != null && slots.compareAndSet(index, buffer, null)) {
+                return buffer;
+            }
+        }
+        return new byte[bufferSize];
+    }
+
+    void release(byte[] buffer) {
+        if (buffer == null || buffer.length != bufferSize) {
+            return;
+        }
+        int start = probe();
+        for (int i = 0; i < slots.length(); i++) {
+            int index = (start + i) % slots.length();
+            if (slots.get(index) == null && slots.compareAndSet(index, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Point de départ dépendant du thread, pour répartir les accès concurrents.
+     */
+    private int probe() {
+        return (int) (Thread.currentThread().getId() % slots.length());
+    }
+}
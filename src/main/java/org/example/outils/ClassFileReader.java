@@ -0,0 +1,215 @@
+package org.example.outils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lecture minimale d'un fichier .class (JVMS §4): dit si la classe porte une annotation
+ * visible à l'exécution, sans charger ni initialiser la classe.
+ *
+ * Préfiltre: si aucune constante Utf8 du pool n'est égale au descripteur de l'annotation
+ * (ex. "Lorg/example/annotation/Controller;"), la lecture s'arrête après le pool.
+ * Sinon, les champs et méthodes sont sautés et l'attribut RuntimeVisibleAnnotations
+ * de la classe est vérifié (une annotation sur une méthode ne compte pas).
+ */
+final class ClassFileReader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final byte[] RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] bytes;
+    private final int length;
+    private int pos;
+    private int[] utf8Offsets;
+
+    private ClassFileReader(byte[] bytes, int length) {
+        this.bytes = bytes;
+        this.length = length;
+    }
+
+    /**
+     * Nom binaire de la classe (avec des points) si elle porte l'annotation, sinon null.
+     * Un fichier illisible ou tronqué est ignoré (null).
+     */
+    static String annotatedClassName(byte[] bytes, int length, byte[] annotationDescriptor) {
+        try {
+            return new ClassFileReader(bytes, length).read(annotationDescriptor);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Descripteur JVM d'une annotation: Lpaquet/Nom;
+     */
+    static byte[] descriptor(Class<?> annotation) {
+        return ("L" + annotation.getName().replace('.', '/') + ";").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String read(byte[] descriptor) {
+        if (length < 10 || u4() != MAGIC) {
+            return null;
+        }
+        pos += 4;  // minor_version, major_version
+        int count = u2();
+        utf8Offsets = new int[count];
+        int[] classNameIndex = new int[count];
+        boolean candidate = false;
+        for (int i = 1; i < count; i++) {
+            int tag = u1();
+            switch (tag) {
+                case 1: {  // Utf8
+                    int len = u2();
+                    utf8Offsets[i] = pos - 2;
+                    if (!candidate && len == descriptor.length && equalsAt(pos, descriptor)) {
+                        candidate = true;
+                    }
+                    pos += len;
+                    break;
+                }
+                case 7:  // Class
+                    classNameIndex[i] = u2();
+                    break;
+                case 8: case 16: case 19: case 20:  // String, MethodType, Module, Package
+                    pos += 2;
+                    break;
+                case 15:  // MethodHandle
+                    pos += 3;
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    pos += 4;
+                    break;
+                case 5: case 6:  // Long, Double: deux entrées
+                    pos += 8;
+                    i++;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        if (!candidate) {
+            return null;
+        }
+
+        pos += 2;  // access_flags
+        int thisClass = u2();
+        pos += 2;  // super_class
+        int interfaces = u2();
+        pos += 2 * interfaces;
+        skipMembers();  // fields
+        skipMembers();  // methods
+        int attributes = u2();
+        for (int a = 0; a < attributes; a++) {
+            int name = u2();
+            int attrLength = u4();
+            int end = pos + attrLength;
+            if (utf8Equals(name, RUNTIME_VISIBLE_ANNOTATIONS) && hasAnnotation(descriptor)) {
+                return utf8(classNameIndex[thisClass]).replace('/', '.');
+            }
+            pos = end;
+        }
+        return null;
+    }
+
+    private void skipMembers() {
+        int count = u2();
+        for (int i = 0; i < count; i++) {
+            pos += 6;  // access_flags, name_index, descriptor_index
+            int attributes = u2();
+            for (int a = 0; a < attributes; a++) {
+                pos += 2;
+                skipAttribute();
+            }
+        }
+    }
+
+    /**
+     * Saute le contenu d'un attribut (longueur u4 puis octets).
+     * Pas de "pos += u4()": pos serait lu avant l'avancée faite par u4().
+     */
+    private void skipAttribute() {
+        int attrLength = u4();
+        pos += attrLength;
+    }
+
+    private boolean hasAnnotation(byte[] descriptor) {
+        int count = u2();
+        for (int i = 0; i < count; i++) {
+            int type = u2();
+            if (utf8Equals(type, descriptor)) {
+                return true;
+            }
+            skipElementValuePairs();
+        }
+        return false;
+    }
+
+    private void skipElementValuePairs() {
+        int pairs = u2();
+        for (int p = 0; p < pairs; p++) {
+            pos += 2;  // element_name_index
+            skipElementValue();
+        }
+    }
+
+    private void skipElementValue() {
+        int tag = u1();
+        switch (tag) {
+            case 'e':  // enum: type_name_index, const_name_index
+                pos += 4;
+                break;
+            case '@':
+                pos += 2;
+                skipElementValuePairs();
+                break;
+            case '[': {
+                int values = u2();
+                for (int v = 0; v < values; v++) {
+                    skipElementValue();
+                }
+                break;
+            }
+            default:  // constante ou classe: un index
+                pos += 2;
+                break;
+        }
+    }
+
+    private boolean utf8Equals(int index, byte[] value) {
+        int offset = utf8Offsets[index];
+        int len = ((bytes[offset] & 0xff) << 8) | (bytes[offset + 1] & 0xff);
+        return len == value.length && equalsAt(offset + 2, value);
+    }
+
+    private String utf8(int index) {
+        int offset = utf8Offsets[index];
+        int len = ((bytes[offset] & 0xff) << 8) | (bytes[offset + 1] & 0xff);
+        // noms de classes: UTF-8 modifié, identique à l'UTF-8 hors caractère nul
+        return new String(bytes, offset + 2, len, StandardCharsets.UTF_8);
+    }
+
+    private boolean equalsAt(int offset, byte[] value) {
+        if (offset + value.length > length) {
+            return false;
+        }
+        for (int i = 0; i < value.length; i++) {
+            if (bytes[offset + i] != value[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int u1() {
+        if (pos >= length) {
+            throw new ArrayIndexOutOfBoundsException(pos);
+        }
+        return bytes[pos++] & 0xff;
+    }
+
+    private int u2() {
+        return (u1() << 8) | u1();
+    }
+
+    private int u4() {
+        return (u2() << 16) | u2();
+    }
+}
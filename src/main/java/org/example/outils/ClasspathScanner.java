@@ -3,28 +3,79 @@ package org.example.outils;
 import org.example.annotation.*;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
+/**
+ * Recherche des contrôleurs (@Controller) dans le classpath.
+ *
+ * Un seul parcours, partagé par {@link #scan} et {@link #scanMethodMappings}:
+ *   - répertoires et jars du paquet parcourus en parallèle (ForkJoinPool)
+ *   - chaque .class est lu octet par octet ({@link ClassFileReader}): aucune classe
+ *     n'est chargée ni initialisée pour savoir si elle porte @Controller
+ *   - seuls les contrôleurs confirmés sont chargés avec Class.forName
+ *   - les JarFile sont fermés dès leur lecture terminée
+ */
 public class ClasspathScanner {
+    private static final byte[] CONTROLLER_DESCRIPTOR = ClassFileReader.descriptor(Controller.class);
 
     public static Map<String, MethodInfo> scan(String packageName) throws Exception {
         Map<String, MethodInfo> urlMappings = new HashMap<>();
 
-        List<Class<?>> classes = new ArrayList<>();
-        String path = packageName.replace('.', '/');
+        // Traiter les classes trouvées
+        for (Class<?> cls : findControllers(packageName)) {
+            FrameworkLog.info("? Controller trouvé : " + cls.getName());
+            for (Method method : cls.getDeclaredMethods()) {
+                Url urlAnnotation = method.getAnnotation(Url.class);
+                if (urlAnnotation != null) {
+                    String url = urlAnnotation.value();
+                    FrameworkLog.info("   ? Méthode: " + method.getName() + "  URL: " + url);
+                    urlMappings.put(url, new MethodInfo(cls, method, url));
+                }
+            }
+            FrameworkLog.info("");
+        }
 
+        return urlMappings;
+    }
+
+    /**
+     * Scan les annotations HTTP (@GetMapping, @PostMapping, @PutMapping, @DeleteMapping)
+     * en plus de @Url pour compatibilité (Sprint 7)
+     */
+    public static Map<String, MethodMapping> scanMethodMappings(String packageName) throws Exception {
+        Map<String, MethodMapping> mappings = new HashMap<>();
+
+        // Traiter les classes trouvées
+        for (Class<?> cls : findControllers(packageName)) {
+            addMappings(cls, mappings);
+        }
+
+        return mappings;
+    }
+
+    /**
+     * Contrôleurs du paquet (et sous-paquets), triés par nom; "" = tout le classpath.
+     */
+    static List<Class<?>> findControllers(String packageName) throws IOException {
         ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
         if (classLoader == null) {
             classLoader = ClasspathScanner.class.getClassLoader();
         }
 
+        String path = packageName.replace('.', '/');
         Enumeration<URL> resources = classLoader.getResources(path);
         List<File> dirs = new ArrayList<>();
-        List<JarFile> jars = new ArrayList<>();
+        Set<String> jars = new LinkedHashSet<>();
 
         while (resources.hasMoreElements()) {
             URL resource = resources.nextElement();
@@ -40,189 +91,187 @@ public class ClasspathScanner {
                 if (exclamationIdx != -1) {
                     jarPath = jarPath.substring(0, exclamationIdx);
                 }
-                jars.add(new JarFile(jarPath));
+                jars.add(jarPath);
             }
         }
 
-        // Scan des fichiers
-        for (File dir : dirs) {
-            findClasses(dir, packageName, classes);
-        }
-
-        // Scan des JARs
-        for (JarFile jar : jars) {
-            Enumeration<JarEntry> entries = jar.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String name = entry.getName();
-
-                if (name.endsWith(".class")) {
-                    String className = name.substring(0, name.length() - 6).replace('/', '.');
-                    if (className.startsWith(packageName) || packageName.isEmpty()) {
-                        try {
-                            Class<?> cls = Class.forName(className);
-                            classes.add(cls);
-                        } catch (Throwable t) {
-                            // Ignorer les erreurs de chargement des classes
-                            System.err.println("❌ Erreur au chargement de " + className + ": " + t.getMessage());
-                            t.printStackTrace(System.err);
-                        }
-                    }
-                }
+        long start = System.nanoTime();
+        String prefix = path.isEmpty() ? "" : path + "/";
+        List<ForkJoinTask<List<String>>> tasks = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+        Set<String> names = new TreeSet<>();
+        try {
+            for (File dir : dirs) {
+                tasks.add(pool.submit(new DirectoryTask(dir)));
+            }
+            for (String jar : jars) {
+                tasks.add(pool.submit(new JarTask(jar, prefix)));
             }
+            for (ForkJoinTask<List<String>> task : tasks) {
+                names.addAll(task.join());
+            }
+        } finally {
+            pool.shutdown();
         }
+        FrameworkLog.debug(() -> "🔎 [ClasspathScanner] " + dirs.size() + " répertoire(s), " + jars.size()
+                + " jar(s) lus en " + (System.nanoTime() - start) / 1_000_000 + " ms: " + names.size() + " contrôleur(s)");
 
-        // Traiter les classes trouvées
-        for (Class<?> cls : classes) {
-            if (cls.isAnnotationPresent(Controller.class)) {
-                System.out.println("? Controller trouvé : " + cls.getName());
-                for (Method method : cls.getDeclaredMethods()) {
-                    Url urlAnnotation = method.getAnnotation(Url.class);
-                    if (urlAnnotation != null) {
-                        String url = urlAnnotation.value();
-                        System.out.println("   ? Méthode: " + method.getName() + "  URL: " + url);
-                        urlMappings.put(url, new MethodInfo(cls, method, url));
-                    }
+        // Chargement des seuls contrôleurs confirmés
+        List<Class<?>> controllers = new ArrayList<>(names.size());
+        for (String className : names) {
+            try {
+                Class<?> cls = Class.forName(className, true, classLoader);
+                if (cls.isAnnotationPresent(Controller.class)) {
+                    controllers.add(cls);
                 }
-                System.out.println("");
+            } catch (Throwable t) {
+                FrameworkLog.error("❌ Erreur au chargement de " + className + ": " + t.getMessage(), t);
             }
         }
+        return controllers;
+    }
 
-        return urlMappings;
+    private static String controllerName(byte[] bytes) {
+        return ClassFileReader.annotatedClassName(bytes, bytes.length, CONTROLLER_DESCRIPTOR);
+    }
+
+    private static boolean isClassFile(String name) {
+        return name.endsWith(".class") && !name.endsWith("module-info.class") && !name.endsWith("package-info.class");
     }
 
-    private static void findClasses(File directory, String packageName, List<Class<?>> classes) {
-        File[] files = directory.listFiles();
-        if (files != null) {
+    /**
+     * Répertoire: fichiers lus ici, sous-répertoires confiés à d'autres tâches.
+     */
+    private static final class DirectoryTask extends RecursiveTask<List<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+
+        DirectoryTask(File directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<String> compute() {
+            List<String> found = new ArrayList<>();
+            File[] files = directory.listFiles();
+            if (files == null) {
+                return found;
+            }
+            List<DirectoryTask> subtasks = new ArrayList<>();
             for (File file : files) {
                 if (file.isDirectory()) {
-                    findClasses(file, packageName + "." + file.getName(), classes);
-                } else if (file.getName().endsWith(".class")) {
-                    String className = packageName + "." + 
-                        file.getName().substring(0, file.getName().length() - 6);
+                    DirectoryTask task = new DirectoryTask(file);
+                    task.fork();
+                    subtasks.add(task);
+                } else if (isClassFile(file.getName())) {
                     try {
-                        Class<?> cls = Class.forName(className);
-                        classes.add(cls);
-                    } catch (Throwable t) {
-                        // Ignorer les erreurs de chargement
-                        System.err.println("❌ Erreur au chargement de " + className + ": " + t.getMessage());
-                        t.printStackTrace(System.err);
+                        String name = controllerName(Files.readAllBytes(file.toPath()));
+                        if (name != null) {
+                            found.add(name);
+                        }
+                    } catch (IOException e) {
+                        FrameworkLog.warn("⚠️ [ClasspathScanner] Lecture impossible: " + file + ": " + e.getMessage());
                     }
                 }
             }
+            for (DirectoryTask task : subtasks) {
+                found.addAll(task.join());
+            }
+            return found;
         }
     }
 
     /**
-     * Scan les annotations HTTP (@GetMapping, @PostMapping, @PutMapping, @DeleteMapping)
-     * en plus de @Url pour compatibilité (Sprint 7)
+     * Jar: entrées du paquet lues dans l'ordre du fichier, JarFile fermé à la fin.
      */
-    public static Map<String, MethodMapping> scanMethodMappings(String packageName) throws Exception {
-        Map<String, MethodMapping> mappings = new HashMap<>();
+    private static final class JarTask extends RecursiveTask<List<String>> {
+        private static final long serialVersionUID = 1L;
 
-        List<Class<?>> classes = new ArrayList<>();
-        String path = packageName.replace('.', '/');
+        private final String path;
+        private final String prefix;
 
-        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-        if (classLoader == null) {
-            classLoader = ClasspathScanner.class.getClassLoader();
+        JarTask(String path, String prefix) {
+            this.path = path;
+            this.prefix = prefix;
         }
 
-        Enumeration<URL> resources = classLoader.getResources(path);
-        List<File> dirs = new ArrayList<>();
-        List<JarFile> jars = new ArrayList<>();
-
-        while (resources.hasMoreElements()) {
-            URL resource = resources.nextElement();
-            String protocol = resource.getProtocol();
-            if ("file".equals(protocol)) {
-                dirs.add(new File(resource.getFile()));
-            } else if ("jar".equals(protocol)) {
-                String jarPath = resource.getPath();
-                if (jarPath.startsWith("file:")) {
-                    jarPath = jarPath.substring("file:".length());
-                }
-                int exclamationIdx = jarPath.indexOf('!');
-                if (exclamationIdx != -1) {
-                    jarPath = jarPath.substring(0, exclamationIdx);
+        @Override
+        protected List<String> compute() {
+            List<String> found = new ArrayList<>();
+            try (JarFile jar = new JarFile(path)) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    String name = entry.getName();
+                    if (!name.startsWith(prefix) || !isClassFile(name)) {
+                        continue;
+                    }
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        String className = controllerName(in.readAllBytes());
+                        if (className != null) {
+                            found.add(className);
+                        }
+                    }
                 }
-                jars.add(new JarFile(jarPath));
+            } catch (IOException e) {
+                FrameworkLog.warn("⚠️ [ClasspathScanner] Jar illisible: " + path + ": " + e.getMessage());
             }
+            return found;
         }
+    }
 
-        // Scan des fichiers
-        for (File dir : dirs) {
-            findClasses(dir, packageName, classes);
-        }
-
-        // Scan des JARs
-        for (JarFile jar : jars) {
-            Enumeration<JarEntry> entries = jar.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String name = entry.getName();
-
-                if (name.endsWith(".class")) {
-                    String className = name.substring(0, name.length() - 6).replace('/', '.');
-                    if (className.startsWith(packageName) || packageName.isEmpty()) {
-                        try {
-                            Class<?> cls = Class.forName(className);
-                            classes.add(cls);
-                        } catch (Throwable t) {
-                            System.err.println("❌ Erreur au chargement de " + className + ": " + t.getMessage());
-                        }
-                    }
-                }
+    /**
+     * Ajoute les routes d'un contrôleur, clé METHOD:URL.
+     */
+    static void addMappings(Class<?> cls, Map<String, MethodMapping> mappings) {
+        FrameworkLog.info("🎯 Controller trouvé : " + cls.getName());
+        for (Method method : cls.getDeclaredMethods()) {
+            MethodMapping mapping = mappingFor(cls, method);
+            if (mapping != null) {
+                // Générer une clé unique: METHOD:URL
+                String key = mapping.getHttpMethod() + ":" + mapping.getUrlPattern();
+                mappings.put(key, mapping);
+                FrameworkLog.info("   ✅ " + key);
             }
         }
+        FrameworkLog.info("");
+    }
 
-        // Traiter les classes trouvées
-        for (Class<?> cls : classes) {
-            if (cls.isAnnotationPresent(Controller.class)) {
-                System.out.println("🎯 Controller trouvé : " + cls.getName());
-                for (Method method : cls.getDeclaredMethods()) {
-                    // Sprint 7: Vérifier les annotations HTTP
-                    MethodMapping mapping = null;
-
-                    GetMapping getMapping = method.getAnnotation(GetMapping.class);
-                    if (getMapping != null) {
-                        mapping = new MethodMapping(cls, method, getMapping.value(), "GET");
-                    }
+    /**
+     * Mapping d'une méthode de contrôleur selon ses annotations HTTP, ou null.
+     */
+    static MethodMapping mappingFor(Class<?> cls, Method method) {
+        // Sprint 7: Vérifier les annotations HTTP
+        MethodMapping mapping = null;
 
-                    PostMapping postMapping = method.getAnnotation(PostMapping.class);
-                    if (postMapping != null) {
-                        mapping = new MethodMapping(cls, method, postMapping.value(), "POST");
-                    }
+        GetMapping getMapping = method.getAnnotation(GetMapping.class);
+        if (getMapping != null) {
+            mapping = new MethodMapping(cls, method, getMapping.value(), "GET");
+        }
 
-                    PutMapping putMapping = method.getAnnotation(PutMapping.class);
-                    if (putMapping != null) {
-                        mapping = new MethodMapping(cls, method, putMapping.value(), "PUT");
-                    }
+        PostMapping postMapping = method.getAnnotation(PostMapping.class);
+        if (postMapping != null) {
+            mapping = new MethodMapping(cls, method, postMapping.value(), "POST");
+        }
 
-                    DeleteMapping deleteMapping = method.getAnnotation(DeleteMapping.class);
-                    if (deleteMapping != null) {
-                        mapping = new MethodMapping(cls, method, deleteMapping.value(), "DELETE");
-                    }
+        PutMapping putMapping = method.getAnnotation(PutMapping.class);
+        if (putMapping != null) {
+            mapping = new MethodMapping(cls, method, putMapping.value(), "PUT");
+        }
 
-                    // Compatibilité: @Url par défaut en GET
-                    if (mapping == null) {
-                        Url urlAnnotation = method.getAnnotation(Url.class);
-                        if (urlAnnotation != null) {
-                            mapping = new MethodMapping(cls, method, urlAnnotation.value(), "GET");
-                        }
-                    }
+        DeleteMapping deleteMapping = method.getAnnotation(DeleteMapping.class);
+        if (deleteMapping != null) {
+            mapping = new MethodMapping(cls, method, deleteMapping.value(), "DELETE");
+        }
 
-                    if (mapping != null) {
-                        // Générer une clé unique: METHOD:URL
-                        String key = mapping.getHttpMethod() + ":" + mapping.getUrlPattern();
-                        mappings.put(key, mapping);
-                        System.out.println("   ✅ " + key);
-                    }
-                }
-                System.out.println("");
+        // Compatibilité: @Url par défaut en GET
+        if (mapping == null) {
+            Url urlAnnotation = method.getAnnotation(Url.class);
+            if (urlAnnotation != null) {
+                mapping = new MethodMapping(cls, method, urlAnnotation.value(), "GET");
             }
         }
-
-        return mappings;
+        return mapping;
     }
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package org.example.outils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compression gzip (RFC 1952) ou deflate (zlib, RFC 1950) en flux vers la réponse.
+ *
+ * Les Deflater (état zlib natif) sont empruntés à un pool et rendus par {@link #finish()}:
+ * pas d'allocation native par requête. Pour gzip, l'en-tête et la fin (CRC32, taille)
+ * sont écrits ici, le Deflater travaillant en mode brut (nowrap).
+ * {@link #flush()} fait un SYNC_FLUSH: ce qui a été écrit part tout de suite
+ * (résultats en flux).
+ */
+final class CompressingOutputStream extends OutputStream {
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private static final int POOL_SIZE = 32;
+    private static final Pool GZIP_POOL = new Pool(true);
+    private static final Pool DEFLATE_POOL = new Pool(false);
+    private static final BufferPool BUFFERS = new BufferPool(JsonWriter.BUFFER_SIZE, 64);
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final OutputStream out;
+    private final boolean gzip;
+    private final Pool pool;
+    private Deflater deflater;
+    private byte[] buf;
+    private final CRC32 crc;
+    private boolean headerWritten;
+
+    CompressingOutputStream(OutputStream out, String encoding, int level) {
+        this.out = out;
+        this.gzip = GZIP.equals(encoding);
+        this.pool = gzip ? GZIP_POOL : DEFLATE_POOL;
+        this.deflater = pool.acquire(level);
+        this.buf = BUFFERS.acquire();
+        this.crc = gzip ? new CRC32() : null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return;
+        }
+        writeHeader();
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            drain(Deflater.NO_FLUSH);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeHeader();
+        int n;
+        do {
+            n = drain(Deflater.SYNC_FLUSH);
+        } while (n == buf.length);
+        out.flush();
+    }
+
+    /**
+     * Termine le flux compressé (et la fin gzip) puis rend le Deflater et le tampon.
+     * Le flux sous-jacent n'est pas fermé.
+     */
+    void finish() throws IOException {
+        if (deflater == null) {
+            return;
+        }
+        try {
+            writeHeader();
+            deflater.finish();
+            while (!deflater.finished()) {
+                drain(Deflater.NO_FLUSH);
+            }
+            if (gzip) {
+                writeInt((int) crc.getValue());
+                writeInt(deflater.getTotalIn());
+            }
+            out.flush();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    /**
+     * Abandon d'un corps incomplet: le Deflater (remis à zéro) et le tampon retournent au
+     * pool, sans fin de flux compressé.
+     */
+    void abandon() {
+        if (deflater != null) {
+            release();
+        }
+    }
+
+    private void release() {
+        pool.release(deflater);
+        deflater = null;
+        BUFFERS.release(buf);
+        buf = null;
+    }
+
+    private int drain(int flush) throws IOException {
+        int n = deflater.deflate(buf, 0, buf.length, flush);
+        if (n > 0) {
+            out.write(buf, 0, n);
+        }
+        return n;
+    }
+
+    private void writeHeader() throws IOException {
+        if (gzip && !headerWritten) {
+            out.write(GZIP_HEADER);
+        }
+        headerWritten = true;
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+        out.write((value >> 16) & 0xff);
+        out.write((value >> 24) & 0xff);
+    }
+
+    /**
+     * Pool borné de Deflater d'un même format; au-delà de POOL_SIZE libres, le Deflater est libéré (end()).
+     */
+    private static final class Pool {
+        private final boolean nowrap;
+        private final Queue<Deflater> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+
+        Pool(boolean nowrap) {
+            this.nowrap = nowrap;
+        }
+
+        Deflater acquire(int level) {
+            Deflater deflater = idle.poll();
+            if (deflater == null) {
+                return new Deflater(level, nowrap);
+            }
+            idleCount.decrementAndGet();
+            deflater.setLevel(level);
+            return deflater;
+        }
+
+        void release(Deflater deflater) {
+            if (deflater == null) {
+                return;
+            }
+            deflater.reset();
+            if (idleCount.incrementAndGet() <= POOL_SIZE) {
+                idle.offer(deflater);
+            } else {
+                idleCount.decrementAndGet();
+                deflater.end();
+            }
+        }
+    }
+}
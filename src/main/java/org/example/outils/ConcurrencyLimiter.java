@@ -0,0 +1,167 @@
+package org.example.outils;
+
+import org.example.annotation.ConcurrencyLimit;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission d'une route @ConcurrencyLimit: compteur de requêtes en cours, sans verrou.
+ *
+ * {@link #tryAcquire()}: une boucle compareAndSet sur le compteur; au-delà de la limite,
+ * refus immédiat (pas de file d'attente). {@link #release(long)} une fois la réponse
+ * écrite (voir {@link UrlDispatcher#responseWritten}), y compris d'une réponse
+ * asynchrone: la sérialisation et la lecture d'un résultat en flux comptent dans la
+ * cloison et dans la latence mesurée.
+ *
+ * Limite adaptative (gradient): les latences sont agrégées par fenêtre d'au moins
+ * 100 ms et {@value #MIN_SAMPLES} requêtes. À la fin d'une fenêtre, un seul thread (celui qui
+ * gagne le compareAndSet sur le début de fenêtre) recalcule la limite:
+ *   - latence de référence: moyenne mobile longue des latences de fenêtre
+ *   - gradient = référence × 1,5 / latence récente, borné à [0,5 ; 1]
+ *   - nouvelle limite = limite × gradient + √limite, lissée (20 %) et bornée à [min ; max]
+ * Si la route n'a pas utilisé la moitié de sa limite pendant la fenêtre, la limite ne
+ * change pas (pas de hausse sans charge réelle).
+ *
+ * Métriques: concurrency.&lt;route&gt;.limit / inFlight / rejected.
+ */
+final class ConcurrencyLimiter {
+    private static final long WINDOW_NANOS = 100_000_000L;
+    private static final int MIN_SAMPLES = 10;
+    private static final double LONG_WINDOW = 20;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final boolean adaptive;
+    private final int min;
+    private final int max;
+    private final String retryAfter;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private final LongAdder rejected = new LongAdder();
+
+    // agrégation de la fenêtre courante (limite adaptative)
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    // modifiés uniquement par le thread qui clôt une fenêtre, mais ce n'est pas toujours le
+    // même thread: volatile pour que le suivant lise les valeurs écrites après le CAS précédent
+    private volatile double estimatedLimit;
+    private volatile double longRtt;
+
+    private ConcurrencyLimiter(String name, ConcurrencyLimit annotation) {
+        this.name = name;
+        this.adaptive = annotation.adaptive();
+        this.min = Math.max(1, annotation.min());
+        this.max = Math.max(this.min, annotation.max());
+        int initial = annotation.value();
+        this.limit = adaptive ? Math.max(min, Math.min(max, initial)) : Math.max(1, initial);
+        this.estimatedLimit = limit;
+        this.retryAfter = String.valueOf(Math.max(0, annotation.retryAfter()));
+        String prefix = "concurrency." + name + ".";
+        FrameworkMetrics.register(prefix + "limit", () -> limit);
+        FrameworkMetrics.register(prefix + "inFlight", inFlight::get);
+        FrameworkMetrics.register(prefix + "rejected", rejected::sum);
+    }
+
+    /**
+     * Limiteur de la route si la méthode ou son contrôleur est @ConcurrencyLimit, sinon null.
+     */
+    static ConcurrencyLimiter of(Method method, String urlPattern, String httpMethod) {
+        ConcurrencyLimit annotation = method.getAnnotation(ConcurrencyLimit.class);
+        if (annotation == null) {
+            annotation = method.getDeclaringClass().getAnnotation(ConcurrencyLimit.class);
+        }
+        return annotation != null ? new ConcurrencyLimiter(httpMethod + " " + urlPattern, annotation) : null;
+    }
+
+    /**
+     * @return l'instant d'admission (System.nanoTime()) à rendre à {@link #release(long)},
+     *         ou -1 si la limite est atteinte
+     */
+    long tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (adaptive && current + 1 > maxInFlight.get()) {
+                    maxInFlight.accumulateAndGet(current + 1, Math::max);
+                }
+                return System.nanoTime();
+            }
+        }
+    }
+
+    void release(long admittedAt) {
+        inFlight.decrementAndGet();
+        if (!adaptive) {
+            return;
+        }
+        long now = System.nanoTime();
+        rttSum.add(now - admittedAt);
+        rttCount.increment();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && rttCount.sum() >= MIN_SAMPLES && windowStart.compareAndSet(start, now)) {
+            long count = rttCount.sumThenReset();
+            long sum = rttSum.sumThenReset();
+            int peak = maxInFlight.getAndSet(inFlight.get());
+            if (count > 0) {
+                update((double) sum / count, peak);
+            }
+        }
+    }
+
+    /**
+     * Libération à exécuter une seule fois, même si plusieurs chemins la déclenchent.
+     */
+    Runnable releaser(long admittedAt) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                release(admittedAt);
+            }
+        };
+    }
+
+    /**
+     * Réponse de refus: 503 immédiat, le client réessaie après Retry-After.
+     */
+    JsonResponse reject() {
+        return JsonResponse.error("Trop de requêtes simultanées pour " + name, 503)
+                .header("Retry-After", retryAfter);
+    }
+
+    private void update(double shortRtt, int peak) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+        }
+        // après une période de forte latence: la référence redescend plus vite
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.9;
+        }
+        if (peak < estimatedLimit / 2) {
+            return;  // route peu sollicitée: la latence ne dit rien de la limite
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        next = estimatedLimit * (1 - SMOOTHING) + next * SMOOTHING;
+        estimatedLimit = Math.max(min, Math.min(max, next));
+        int published = (int) estimatedLimit;
+        if (published != limit) {
+            limit = published;
+            FrameworkLog.debug(() -> "🚦 [ConcurrencyLimiter] " + name + ": limite " + published
+                    + " (latence " + (long) (shortRtt / 1000) + " µs)");
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package org.example.outils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Appel d'une méthode de contrôleur, préparé une seule fois au scan.
+ *
+ * Ordre de préférence:
+ *   1) classe cachée générée par LambdaMetafactory: appel direct (invokevirtual) au contrôleur,
+ *      que le JIT peut intégrer comme du code écrit à la main (méthodes non void, 6 paramètres max)
+ *   2) MethodHandle adapté à (Object cible, Object[] args) -> Object
+ *   3) Method.invoke en dernier recours
+ *
+ * Dans tous les cas, l'exception levée par le contrôleur est relancée telle quelle
+ * (pas d'InvocationTargetException).
+ */
+public abstract class ControllerInvoker {
+    private static final Map<Method, ControllerInvoker> CACHE = new ConcurrentHashMap<>();
+    private static final int MAX_SPUN_PARAMETERS = 6;
+
+    /**
+     * @param target instance du contrôleur (ignorée pour une méthode statique)
+     * @param args arguments déjà convertis, un par paramètre
+     */
+    public abstract Object invoke(Object target, Object[] args) throws Exception;
+
+    /**
+     * Invoker partagé pour une méthode (créé au premier appel).
+     */
+    public static ControllerInvoker of(Method method) {
+        return CACHE.computeIfAbsent(method, ControllerInvoker::create);
+    }
+
+    private static ControllerInvoker create(Method method) {
+        try {
+            if (method.getReturnType() != void.class && method.getParameterCount() <= MAX_SPUN_PARAMETERS) {
+                return spin(method);
+            }
+        } catch (Throwable t) {
+            FrameworkLog.warn("⚠️ [ControllerInvoker] LambdaMetafactory indisponible pour " + method + " (" + t + ")");
+        }
+        try {
+            return new HandleInvoker(method);
+        } catch (Throwable t) {
+            FrameworkLog.warn("⚠️ [ControllerInvoker] MethodHandle indisponible pour " + method
+                    + " (" + t + "), utilisation de la réflexion");
+            return new ReflectiveInvoker(method);
+        }
+    }
+
+    /**
+     * Retire l'invoker partagé d'une méthode qui n'est plus routée (contrôleur retiré ou
+     * rechargé): le cache ne retient plus sa classe ni son chargeur. Les MethodMapping
+     * existants gardent leur invoker.
+     */
+    static void forget(Method method) {
+        CACHE.remove(method);
+    }
+
+    public static ControllerInvoker reflective(Method method) {
+        return new ReflectiveInvoker(method);
+    }
+
+    private static Exception rethrow(Throwable t) throws Exception {
+        if (t instanceof Exception) throw (Exception) t;
+        if (t instanceof Error) throw (Error) t;
+        throw new InvocationTargetException(t);
+    }
+
+    // Formes implémentées par les classes générées (publiques: la classe cachée est définie
+    // dans le contrôleur et doit pouvoir y accéder). Usage interne au framework.
+    public interface Call0 { Object call() throws Throwable; }
+    public interface Call1 { Object call(Object a0) throws Throwable; }
+    public interface Call2 { Object call(Object a0, Object a1) throws Throwable; }
+    public interface Call3 { Object call(Object a0, Object a1, Object a2) throws Throwable; }
+    public interface Call4 { Object call(Object a0, Object a1, Object a2, Object a3) throws Throwable; }
+    public interface Call5 { Object call(Object a0, Object a1, Object a2, Object a3, Object a4) throws Throwable; }
+    public interface Call6 { Object call(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5) throws Throwable; }
+    public interface Call7 { Object call(Object a0, Object a1, Object a2, Object a3, Object a4, Object a5, Object a6) throws Throwable; }
+
+    private static final Class<?>[] SHAPES = {
+            Call0.class, Call1.class, Call2.class, Call3.class, Call4.class, Call5.class, Call6.class, Call7.class
+    };
+
+    /**
+     * Crée la fonction générée par LambdaMetafactory. Pour une méthode d'instance,
+     * la cible est le premier argument de la forme CallN.
+     */
+    private static ControllerInvoker spin(Method method) throws Throwable {
+        int arity = method.getParameterCount();
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        int shape = isStatic ? arity : arity + 1;
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+        MethodHandle impl = lookup.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "call",
+                MethodType.methodType(SHAPES[shape]),
+                MethodType.genericMethodType(shape),
+                impl,
+                impl.type().wrap());
+        Object fn = site.getTarget().invoke();
+        if (isStatic) {
+            switch (arity) {
+                case 0: return new StaticInvoker0((Call0) fn);
+                case 1: return new StaticInvoker1((Call1) fn);
+                case 2: return new StaticInvoker2((Call2) fn);
+                default: return new StaticInvokerN(fn, arity);
+            }
+        }
+        switch (arity) {
+            case 0: return new Invoker0((Call1) fn);
+            case 1: return new Invoker1((Call2) fn);
+            case 2: return new Invoker2((Call3) fn);
+            case 3: return new Invoker3((Call4) fn);
+            default: return new InvokerN(fn, arity);
+        }
+    }
+
+    // Une classe par arité courante: l'appel à la fonction générée est direct, sans switch
+    static final class Invoker0 extends ControllerInvoker {
+        private final Call1 fn;
+        Invoker0(Call1 fn) { this.fn = fn; }
+        @Override
+        public Object invoke(Object target, Object[] a) throws Exception {
+            try { return fn.call(target); } catch (Throwable t) { throw rethrow(t); }
+        }
+    }
+
+    static final class Invoker1 extends ControllerInvoker {
+        private final Call2 fn;
+        Invoker1(Call2 fn) { this.fn = fn; }
+        @Override
+        public Object invoke(Object target, Object[] a) throws Exception {
+            try { return fn.call(target, a[0]); } catch (Throwable t) { throw rethrow(t); }
+        }
+    }
+
+    static final class Invoker2 extends ControllerInvoker {
+        private final Call3 fn;
+        Invoker2(Call3 fn) { this.fn = fn; }
+        @Override
+        public Object invoke(Object target, Object[] a) throws Exception {
+            try { return fn.call(target, a[0], a[1]); } catch (Throwable t) { throw rethrow(t); }
+        }
+    }
+
+    static final class Invoker3 extends ControllerInvoker {
+        private final Call4 fn;
+        Invoker3(Call4 fn) { this.fn = fn; }
+        @Override
+        public Object invoke(Object target, Object[] a) throws Exception {
+            try { return fn.call(target, a[0], a[1], a[2]); } catch (Throwable t) { throw rethrow(t); }
+        }
+    }
+
+    static final class InvokerN extends ControllerInvoker {
+        private final Object fn;
+        private final int arity;
+        InvokerN(Object fn, int arity) { this.fn = fn; this.arity = arity; }
+        @Override
+        public Object invoke(Object target, Object[] a) throws Exception {
+            try {
+                switch (arity) {
+                    case 4: return ((Call5) fn).call(target, a[0], a[1], a[2], a[3]);
+                    case 5: return ((Call6) fn).call(target, a[0], a[1], a[2], a[3], a[4]);
+                    default: return ((Call7) fn).call(target, a[0], a[1], a[2], a[3], a[4], a[5]);
+                }
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+
+    static final class StaticInvoker0 extends ControllerInvoker {
+        private final Call0 fn;
+        StaticInvoker0(Call0 fn) { this.fn = fn; }
+        @Override
+        public Object invoke(Object target, Object[] a) throws Exception {
+            try { return fn.call(); } catch (Throwable t) { throw rethrow(t); }
+        }
+    }
+
+    static final class StaticInvoker1 extends ControllerInvoker {
+        private final Call1 fn;
+        StaticInvoker1(Call1 fn) { this.fn = fn; }
+        @Override
+        public Object invoke(Object target, Object[] a) throws Exception {
+            try { return fn.call(a[0]); } catch (Throwable t) { throw rethrow(t); }
+        }
+    }
+
+    static final class StaticInvoker2 extends ControllerInvoker {
+        private final Call2 fn;
+        StaticInvoker2(Call2 fn) { this.fn = fn; }
+        @Override
+        public Object invoke(Object target, Object[] a) throws Exception {
+            try { return fn.call(a[0], a[1]); } catch (Throwable t) { throw rethrow(t); }
+        }
+    }
+
+    static final class StaticInvokerN extends ControllerInvoker {
+        private final Object fn;
+        private final int arity;
+        StaticInvokerN(Object fn, int arity) { this.fn = fn; this.arity = arity; }
+        @Override
+        public Object invoke(Object target, Object[] a) throws Exception {
+            try {
+                switch (arity) {
+                    case 3: return ((Call3) fn).call(a[0], a[1], a[2]);
+                    case 4: return ((Call4) fn).call(a[0], a[1], a[2], a[3]);
+                    case 5: return ((Call5) fn).call(a[0], a[1], a[2], a[3], a[4]);
+                    default: return ((Call6) fn).call(a[0], a[1], a[2], a[3], a[4], a[5]);
+                }
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+
+    static final class HandleInvoker extends ControllerInvoker {
+        private static final MethodType GENERIC = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+        private final MethodHandle handle;
+
+        HandleInvoker(Method method) throws IllegalAccessException {
+            if (!Modifier.isPublic(method.getModifiers())
+                    || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                method.setAccessible(true);
+            }
+            MethodHandle mh = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                mh = MethodHandles.dropArguments(mh, 0, Object.class);
+            }
+            this.handle = mh.asSpreader(Object[].class, method.getParameterCount()).asType(GENERIC);
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] args) throws Exception {
+            try {
+                return handle.invokeExact(target, args);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+
+    static final class ReflectiveInvoker extends ControllerInvoker {
+        private final Method method;
+
+        ReflectiveInvoker(Method method) {
+            this.method = method;
+            try {
+                method.setAccessible(true);
+            } catch (RuntimeException ignored) {
+                // méthode publique d'une classe publique: accessible sans setAccessible
+            }
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] args) throws Exception {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ite) {
+                throw rethrow(ite.getTargetException());
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.outils;
+
+import org.example.annotation.Controller;
+import org.example.annotation.Scope;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fournit les instances d'un contrôleur selon son {@link Scope}.
+ *
+ * Le constructeur sans argument est résolu une seule fois (MethodHandle): plus de
+ * getDeclaredConstructor().newInstance() à chaque requête. Chaque instance obtenue
+ * par {@link #acquire()} doit être rendue par {@link #release(Object)}.
+ */
+public abstract class ControllerProvider {
+    static final LongAdder CREATED = new LongAdder();
+    static final LongAdder POOL_HITS = new LongAdder();
+    static final LongAdder POOL_MISSES = new LongAdder();
+
+    private final Class<?> controllerClass;
+    private final MethodHandle constructor;
+
+    ControllerProvider(Class<?> controllerClass) throws ReflectiveOperationException {
+        this.controllerClass = controllerClass;
+        this.constructor = findConstructor(controllerClass);
+    }
+
+    /**
+     * Crée le fournisseur correspondant à l'annotation @Controller de la classe
+     * (PROTOTYPE si la classe n'est pas annotée).
+     */
+    public static ControllerProvider create(Class<?> controllerClass) throws ReflectiveOperationException {
+        Controller annotation = controllerClass.getAnnotation(Controller.class);
+        Scope scope = annotation != null ? annotation.scope() : Scope.PROTOTYPE;
+        switch (scope) {
+            case SINGLETON:
+                return new Singleton(controllerClass);
+            case POOLED:
+                return new Pooled(controllerClass, annotation.poolSize());
+            default:
+                return new Prototype(controllerClass);
+        }
+    }
+
+    public abstract Object acquire() throws Exception;
+
+    public abstract void release(Object instance);
+
+    public abstract Scope getScope();
+
+    public Class<?> getControllerClass() {
+        return controllerClass;
+    }
+
+    Object newInstance() throws Exception {
+        try {
+            Object instance = constructor.invoke();
+            CREATED.increment();
+            return instance;
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private static MethodHandle findConstructor(Class<?> cls) throws ReflectiveOperationException {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+            return lookup.findConstructor(cls, MethodType.methodType(void.class));
+        } catch (IllegalAccessException e) {
+            java.lang.reflect.Constructor<?> ctor = cls.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(ctor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return controllerClass.getSimpleName() + " (" + getScope() + ")";
+    }
+
+    static final class Singleton extends ControllerProvider {
+        private final Object instance;
+
+        Singleton(Class<?> controllerClass) throws ReflectiveOperationException {
+            super(controllerClass);
+            try {
+                this.instance = newInstance();
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new java.lang.reflect.InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public Object acquire() {
+            return instance;
+        }
+
+        @Override
+        public void release(Object instance) {
+        }
+
+        @Override
+        public Scope getScope() {
+            return Scope.SINGLETON;
+        }
+    }
+
+    static final class Prototype extends ControllerProvider {
+        Prototype(Class<?> controllerClass) throws ReflectiveOperationException {
+            super(controllerClass);
+        }
+
+        @Override
+        public Object acquire() throws Exception {
+            return newInstance();
+        }
+
+        @Override
+        public void release(Object instance) {
+        }
+
+        @Override
+        public Scope getScope() {
+            return Scope.PROTOTYPE;
+        }
+    }
+
+    /**
+     * Pool borné sans verrou: au-delà de maxIdle instances rendues, les suivantes sont abandonnées.
+     * Si le pool est vide, une instance est créée (le pool ne bloque jamais la requête).
+     */
+    static final class Pooled extends ControllerProvider {
+        private final ConcurrentLinkedQueue<Object> idle = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger idleCount = new AtomicInteger();
+        private final int maxIdle;
+
+        Pooled(Class<?> controllerClass, int maxIdle) throws ReflectiveOperationException {
+            super(controllerClass);
+            this.maxIdle = Math.max(1, maxIdle);
+        }
+
+        @Override
+        public Object acquire() throws Exception {
+            Object instance = idle.poll();
+            if (instance != null) {
+                idleCount.decrementAndGet();
+                POOL_HITS.increment();
+                return instance;
+            }
+            POOL_MISSES.increment();
+            return newInstance();
+        }
+
+        @Override
+        public void release(Object instance) {
+            if (instance == null) return;
+            if (idleCount.incrementAndGet() <= maxIdle) {
+                idle.offer(instance);
+            } else {
+                idleCount.decrementAndGet();
+            }
+        }
+
+        @Override
+        public Scope getScope() {
+            return Scope.POOLED;
+        }
+    }
+}
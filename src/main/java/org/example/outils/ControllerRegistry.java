@@ -0,0 +1,71 @@
+package org.example.outils;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des contrôleurs: un {@link ControllerProvider} par classe.
+ *
+ * Construit par le StartupListener à partir des routes scannées: les singletons
+ * sont instanciés à ce moment-là et chaque MethodMapping reçoit directement son
+ * fournisseur (aucune recherche dans le registre pendant la requête).
+ */
+public final class ControllerRegistry {
+    public static final String CONTROLLER_REGISTRY_KEY = "controllerRegistry";
+
+    // Registre utilisé pour les mappings créés hors du StartupListener
+    private static final ControllerRegistry FALLBACK = new ControllerRegistry();
+
+    private final Map<Class<?>, ControllerProvider> providers = new ConcurrentHashMap<>();
+
+    static {
+        FrameworkMetrics.register("controllers.instances.created", ControllerProvider.CREATED::sum);
+        FrameworkMetrics.register("controllers.pool.hits", ControllerProvider.POOL_HITS::sum);
+        FrameworkMetrics.register("controllers.pool.misses", ControllerProvider.POOL_MISSES::sum);
+    }
+
+    public static ControllerRegistry build(Collection<MethodMapping> mappings) {
+        ControllerRegistry registry = new ControllerRegistry();
+        if (mappings != null) {
+            for (MethodMapping mapping : mappings) {
+                try {
+                    mapping.setControllerProvider(registry.provider(mapping.getControllerClass()));
+                } catch (RuntimeException e) {
+                    FrameworkLog.error("❌ [ControllerRegistry] Impossible de préparer " + mapping.getControllerClass().getName()
+                            + ": " + e.getMessage());
+                }
+            }
+        }
+        return registry;
+    }
+
+    static ControllerRegistry fallback() {
+        return FALLBACK;
+    }
+
+    public ControllerProvider provider(Class<?> controllerClass) {
+        return providers.computeIfAbsent(controllerClass, cls -> {
+            try {
+                return ControllerProvider.create(cls);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Contrôleur non instanciable: " + cls.getName(), e);
+            }
+        });
+    }
+
+    /**
+     * Oublie le fournisseur d'un contrôleur retiré (voir {@link RouteRegistry}).
+     */
+    void remove(Class<?> controllerClass) {
+        providers.remove(controllerClass);
+    }
+
+    public Collection<ControllerProvider> getProviders() {
+        return providers.values();
+    }
+
+    public int size() {
+        return providers.size();
+    }
+}
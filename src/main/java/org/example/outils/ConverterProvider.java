@@ -0,0 +1,13 @@
+package org.example.outils;
+
+/**
+ * SPI pour ajouter des convertisseurs de paramètres.
+ *
+ * Les implémentations sont découvertes par ServiceLoader
+ * (META-INF/services/org.example.outils.ConverterProvider) au premier accès au
+ * registre, donc avant la préparation des routes.
+ */
+public interface ConverterProvider {
+
+    void registerConverters(ConverterRegistry registry);
+}
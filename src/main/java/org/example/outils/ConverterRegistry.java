@@ -0,0 +1,196 @@
+package org.example.outils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des convertisseurs String -> type d'argument.
+ *
+ * {@link #resolve(Class)} est appelé au scan, une fois par argument; le binder garde
+ * le convertisseur obtenu. Ordre de résolution:
+ *   1) convertisseur enregistré pour le type exact (intégrés + SPI {@link ConverterProvider})
+ *   2) enum: table nom -> constante précalculée (insensible à la casse, null si inconnu)
+ *   3) méthode statique valueOf(String) / of(String) / parse(CharSequence), ou constructeur (String)
+ *   4) valeur brute (comportement historique)
+ */
+public final class ConverterRegistry {
+    private static final TypeConverter<Object> RAW = value -> value;
+    /** Convertisseurs intégrés int / long: UrlParamBinder les remplace par une lecture directe du chemin. */
+    static final TypeConverter<Integer> INT = Integer::parseInt;
+    static final TypeConverter<Long> LONG = Long::parseLong;
+    private static volatile ConverterRegistry defaultRegistry;
+
+    private final Map<Class<?>, TypeConverter<?>> converters = new ConcurrentHashMap<>();
+    private final Map<Class<?>, TypeConverter<?>> resolved = new ConcurrentHashMap<>();
+
+    public ConverterRegistry() {
+        registerBuiltIns();
+    }
+
+    /**
+     * Registre partagé, initialisé avec les convertisseurs intégrés et ceux du SPI.
+     */
+    public static ConverterRegistry getDefault() {
+        ConverterRegistry registry = defaultRegistry;
+        if (registry == null) {
+            synchronized (ConverterRegistry.class) {
+                registry = defaultRegistry;
+                if (registry == null) {
+                    registry = new ConverterRegistry();
+                    registry.loadProviders();
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    public <T> void register(Class<T> type, TypeConverter<? extends T> converter) {
+        converters.put(type, converter);
+        resolved.clear();
+    }
+
+    /**
+     * Convertisseur pour le type (jamais null).
+     */
+    public TypeConverter<?> resolve(Class<?> type) {
+        return resolved.computeIfAbsent(type, this::lookup);
+    }
+
+    /**
+     * Convertisseur pour le type, ou null si aucun ne s'applique (pas de repli sur la valeur brute).
+     * Sert à distinguer une valeur simple d'un objet à lier propriété par propriété.
+     */
+    public TypeConverter<?> find(Class<?> type) {
+        TypeConverter<?> converter = resolve(type);
+        return converter != RAW ? converter : null;
+    }
+
+    private TypeConverter<?> lookup(Class<?> type) {
+        TypeConverter<?> converter = converters.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isEnum()) {
+            return enumConverter(type);
+        }
+        converter = factoryConverter(type);
+        if (converter != null) {
+            return converter;
+        }
+        return RAW;
+    }
+
+    private void registerBuiltIns() {
+        register(String.class, value -> value);
+        register(CharSequence.class, value -> value);
+        register(Object.class, value -> value);
+        registerPrimitive(int.class, Integer.class, INT);
+        registerPrimitive(long.class, Long.class, LONG);
+        registerPrimitive(double.class, Double.class, Double::parseDouble);
+        registerPrimitive(float.class, Float.class, Float::parseFloat);
+        registerPrimitive(boolean.class, Boolean.class, Boolean::parseBoolean);
+        registerPrimitive(short.class, Short.class, Short::parseShort);
+        registerPrimitive(byte.class, Byte.class, Byte::parseByte);
+        registerPrimitive(char.class, Character.class, value -> value.length() == 1 ? value.charAt(0) : null);
+        register(BigDecimal.class, BigDecimal::new);
+        register(BigInteger.class, BigInteger::new);
+        register(UUID.class, UUID::fromString);
+        register(LocalDate.class, LocalDate::parse);
+        register(LocalDateTime.class, LocalDateTime::parse);
+        register(LocalTime.class, LocalTime::parse);
+        register(Instant.class, Instant::parse);
+        register(OffsetDateTime.class, OffsetDateTime::parse);
+        register(ZonedDateTime.class, ZonedDateTime::parse);
+        register(Duration.class, Duration::parse);
+    }
+
+    private <T> void registerPrimitive(Class<?> primitive, Class<T> wrapper, TypeConverter<T> converter) {
+        converters.put(primitive, converter);
+        converters.put(wrapper, converter);
+    }
+
+    private void loadProviders() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = ConverterRegistry.class.getClassLoader();
+        }
+        try {
+            for (ConverterProvider provider : ServiceLoader.load(ConverterProvider.class, loader)) {
+                provider.registerConverters(this);
+                FrameworkLog.info("🔌 [ConverterRegistry] Convertisseurs ajoutés par " + provider.getClass().getName());
+            }
+        } catch (Throwable t) {
+            FrameworkLog.warn("⚠️ [ConverterRegistry] Chargement des ConverterProvider impossible: " + t);
+        }
+    }
+
+    /**
+     * Table précalculée: pas d'exception de valueOf() pour une valeur inconnue.
+     * Les chemins étant mis en minuscules par FrontServlet, la recherche ignore la casse.
+     */
+    private static TypeConverter<?> enumConverter(Class<?> type) {
+        Map<String, Object> byName = new HashMap<>();
+        for (Object constant : type.getEnumConstants()) {
+            String name = ((Enum<?>) constant).name();
+            byName.put(name, constant);
+            byName.putIfAbsent(name.toUpperCase(Locale.ROOT), constant);
+        }
+        return value -> {
+            Object constant = byName.get(value);
+            return constant != null ? constant : byName.get(value.toUpperCase(Locale.ROOT));
+        };
+    }
+
+    private static TypeConverter<?> factoryConverter(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (String name : new String[] {"valueOf", "of", "parse", "fromString"}) {
+            for (Class<?> argType : new Class<?>[] {String.class, CharSequence.class}) {
+                try {
+                    MethodHandle factory = lookup.findStatic(type, name, MethodType.methodType(type, argType));
+                    return handleConverter(factory.asType(MethodType.methodType(Object.class, String.class)));
+                } catch (ReflectiveOperationException | RuntimeException ignored) {
+                    // essayer la forme suivante
+                }
+            }
+        }
+        try {
+            MethodHandle ctor = lookup.findConstructor(type, MethodType.methodType(void.class, String.class));
+            return handleConverter(ctor.asType(MethodType.methodType(Object.class, String.class)));
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            return null;
+        }
+    }
+
+    private static TypeConverter<?> handleConverter(MethodHandle handle) {
+        return value -> {
+            try {
+                return handle.invokeExact(value);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalArgumentException(t);
+            }
+        };
+    }
+}
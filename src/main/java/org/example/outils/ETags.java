@@ -0,0 +1,96 @@
+package org.example.outils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Construction et comparaison des ETag.
+ *
+ *   - corps sérialisé: ETag fort "taille-crc32c" (CRC32C est calculé par une instruction
+ *     dédiée du processeur, quelques Go/s); suffixe "-gzip" / "-deflate" si le corps
+ *     est compressé, la représentation envoyée n'étant plus la même
+ *   - version fournie par le contrôleur ({@link Versioned}): ETag faible W/"..."
+ *
+ * If-None-Match se compare en mode faible (RFC 9110): W/ et suffixe de codage ignorés.
+ */
+final class ETags {
+    private static final int MAX_VERSION_LENGTH = 64;
+
+    private ETags() {
+    }
+
+    static String fromBytes(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return "\"" + Integer.toHexString(length) + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    /**
+     * Version recopiée telle quelle si elle est courte et sans caractère spécial, sinon hachée.
+     */
+    static String fromVersion(String version) {
+        if (version.length() <= MAX_VERSION_LENGTH && isToken(version)) {
+            return "W/\"" + version + "\"";
+        }
+        byte[] bytes = version.getBytes(StandardCharsets.UTF_8);
+        return "W/" + fromBytes(bytes, 0, bytes.length);
+    }
+
+    static String withEncoding(String etag, String encoding) {
+        if (encoding == null || etag.startsWith("W/")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + encoding + "\"";
+    }
+
+    /**
+     * Vrai si l'en-tête If-None-Match désigne cet ETag (ou "*").
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String expected = opaque(etag);
+        int start = 0;
+        int length = ifNoneMatch.length();
+        while (start < length) {
+            int comma = ifNoneMatch.indexOf(',', start);
+            int end = comma >= 0 ? comma : length;
+            String candidate = ifNoneMatch.substring(start, end).trim();
+            if (candidate.equals("*") || opaque(candidate).equals(expected)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String opaque(String etag) {
+        String value = etag.startsWith("W/") ? etag.substring(2) : etag;
+        if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+            value = value.substring(1, value.length() - 1);
+        }
+        if (value.endsWith("-" + CompressingOutputStream.GZIP)) {
+            return value.substring(0, value.length() - CompressingOutputStream.GZIP.length() - 1);
+        }
+        if (value.endsWith("-" + CompressingOutputStream.DEFLATE)) {
+            return value.substring(0, value.length() - CompressingOutputStream.DEFLATE.length() - 1);
+        }
+        return value;
+    }
+
+    private static boolean isToken(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean ok = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '_' || c == '-' || c == ':';
+            if (!ok) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
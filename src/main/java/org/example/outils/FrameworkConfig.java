@@ -0,0 +1,119 @@
+package org.example.outils;
+
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Paramètres du framework lus depuis web.xml.
+ *
+ * Les &lt;context-param&gt; servent de valeurs par défaut, les &lt;init-param&gt;
+ * de FrontServlet (ou FrontFilter) les remplacent. L'instance est stockée dans
+ * le ServletContext pour que UrlDispatcher et les autres composants la retrouvent.
+ * Le niveau de journalisation (log.level) est appliqué à chaque chargement.
+ */
+public final class FrameworkConfig {
+    public static final String CONFIG_KEY = "frameworkConfig";
+
+    private final Map<String, String> values;
+
+    private FrameworkConfig(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Configuration courante du contexte (context-param uniquement si aucun servlet ne l'a chargée).
+     */
+    public static FrameworkConfig get(ServletContext ctx) {
+        Object attr = ctx != null ? ctx.getAttribute(CONFIG_KEY) : null;
+        if (attr instanceof FrameworkConfig) {
+            return (FrameworkConfig) attr;
+        }
+        FrameworkConfig config = new FrameworkConfig(contextParams(ctx));
+        FrameworkLog.configure(config);
+        if (ctx != null) {
+            ctx.setAttribute(CONFIG_KEY, config);
+        }
+        return config;
+    }
+
+    public static FrameworkConfig load(ServletConfig servletConfig) {
+        ServletContext ctx = servletConfig.getServletContext();
+        Map<String, String> values = contextParams(ctx);
+        Enumeration<String> names = servletConfig.getInitParameterNames();
+        while (names != null && names.hasMoreElements()) {
+            String name = names.nextElement();
+            values.put(name, servletConfig.getInitParameter(name));
+        }
+        return publish(ctx, values);
+    }
+
+    public static FrameworkConfig load(FilterConfig filterConfig) {
+        ServletContext ctx = filterConfig.getServletContext();
+        Map<String, String> values = contextParams(ctx);
+        Enumeration<String> names = filterConfig.getInitParameterNames();
+        while (names != null && names.hasMoreElements()) {
+            String name = names.nextElement();
+            values.put(name, filterConfig.getInitParameter(name));
+        }
+        return publish(ctx, values);
+    }
+
+    private static FrameworkConfig publish(ServletContext ctx, Map<String, String> values) {
+        FrameworkConfig config = new FrameworkConfig(values);
+        FrameworkLog.configure(config);
+        if (ctx != null) {
+            ctx.setAttribute(CONFIG_KEY, config);
+        }
+        return config;
+    }
+
+    private static Map<String, String> contextParams(ServletContext ctx) {
+        Map<String, String> values = new HashMap<>();
+        if (ctx == null) {
+            return values;
+        }
+        Enumeration<String> names = ctx.getInitParameterNames();
+        while (names != null && names.hasMoreElements()) {
+            String name = names.nextElement();
+            values.put(name, ctx.getInitParameter(name));
+        }
+        return values;
+    }
+
+    public String get(String name, String defaultValue) {
+        String value = values.get(name);
+        return value != null && !value.trim().isEmpty() ? value.trim() : defaultValue;
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = get(name, null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            FrameworkLog.warn("⚠️ [FrameworkConfig] Valeur entière invalide pour " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String name, long defaultValue) {
+        String value = get(name, null);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            FrameworkLog.warn("⚠️ [FrameworkConfig] Valeur entière invalide pour " + name + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public boolean getBoolean(String name, boolean defaultValue) {
+        String value = get(name, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,298 @@
+package org.example.outils;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Journalisation du framework: niveaux, messages construits à la demande, écriture asynchrone.
+ *
+ * Un niveau désactivé coûte une lecture de champ et une comparaison: avec la forme
+ * {@code FrameworkLog.debug(() -> "..." + x)}, le message n'est même pas construit.
+ * Les messages acceptés sont déposés dans un anneau borné (plusieurs producteurs,
+ * un seul consommateur, sans verrou); le thread démon "framework-log" les écrit sur
+ * System.out (WARN/ERROR sur System.err). Anneau plein: le message est abandonné et
+ * compté (métrique log.dropped), la requête n'attend jamais la console.
+ * {@link #shutdown()} (arrêt du contexte) écrit les messages restants et arrête le thread;
+ * les messages suivants sont écrits directement.
+ *
+ * Configuration (propriété système, sinon context-param / init-param):
+ *   framework.log.level / log.level          TRACE, DEBUG, INFO (défaut), WARN, ERROR, OFF
+ *   framework.log.async / log.async          false pour écrire directement (tests, débogage)
+ *   log.bufferSize                           taille de l'anneau (défaut 8192, fixée au premier message)
+ */
+public final class FrameworkLog {
+    public enum Level { TRACE, DEBUG, INFO, WARN, ERROR, OFF }
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static volatile int threshold = Level.INFO.ordinal();
+    private static volatile boolean async = true;
+    private static volatile int bufferSize = DEFAULT_BUFFER_SIZE;
+    private static volatile Ring ring;
+    private static volatile boolean stopped;
+    private static Thread shutdownHook;
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    static {
+        String level = System.getProperty("framework.log.level");
+        if (level != null) {
+            setLevel(level);
+        }
+        String asyncProperty = System.getProperty("framework.log.async");
+        if (asyncProperty != null) {
+            async = Boolean.parseBoolean(asyncProperty);
+        }
+        FrameworkMetrics.register("log.dropped", DROPPED::sum);
+    }
+
+    private FrameworkLog() {
+    }
+
+    /**
+     * Applique la configuration web.xml (la propriété système reste prioritaire).
+     */
+    public static void configure(FrameworkConfig config) {
+        stopped = false;
+        if (System.getProperty("framework.log.level") == null) {
+            String level = config.get("log.level", null);
+            if (level != null) {
+                setLevel(level);
+            }
+        }
+        if (System.getProperty("framework.log.async") == null) {
+            async = config.getBoolean("log.async", async);
+        }
+        bufferSize = config.getInt("log.bufferSize", bufferSize);
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    public static void setLevel(String level) {
+        try {
+            setLevel(Level.valueOf(level.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            log(Level.WARN, "⚠️ [FrameworkLog] Niveau inconnu: " + level, null);
+        }
+    }
+
+    public static Level getLevel() {
+        return Level.values()[threshold];
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    public static boolean isDebugEnabled() {
+        return Level.DEBUG.ordinal() >= threshold;
+    }
+
+    public static long getDropped() {
+        return DROPPED.sum();
+    }
+
+    public static void trace(Supplier<String> message) {
+        if (Level.TRACE.ordinal() >= threshold) log(Level.TRACE, message.get(), null);
+    }
+
+    public static void debug(String message) {
+        if (Level.DEBUG.ordinal() >= threshold) log(Level.DEBUG, message, null);
+    }
+
+    public static void debug(Supplier<String> message) {
+        if (Level.DEBUG.ordinal() >= threshold) log(Level.DEBUG, message.get(), null);
+    }
+
+    public static void info(String message) {
+        if (Level.INFO.ordinal() >= threshold) log(Level.INFO, message, null);
+    }
+
+    public static void info(Supplier<String> message) {
+        if (Level.INFO.ordinal() >= threshold) log(Level.INFO, message.get(), null);
+    }
+
+    public static void warn(String message) {
+        if (Level.WARN.ordinal() >= threshold) log(Level.WARN, message, null);
+    }
+
+    public static void warn(Supplier<String> message) {
+        if (Level.WARN.ordinal() >= threshold) log(Level.WARN, message.get(), null);
+    }
+
+    public static void error(String message) {
+        if (Level.ERROR.ordinal() >= threshold) log(Level.ERROR, message, null);
+    }
+
+    public static void error(String message, Throwable error) {
+        if (Level.ERROR.ordinal() >= threshold) log(Level.ERROR, message, error);
+    }
+
+    private static void log(Level level, String message, Throwable error) {
+        Record record = new Record(level, message, error);
+        if (!async || stopped) {
+            record.write();
+            return;
+        }
+        Ring r = ring;
+        if (r == null) {
+            r = startRing();
+        }
+        if (!r.offer(record)) {
+            DROPPED.increment();
+        }
+    }
+
+    private static synchronized Ring startRing() {
+        if (ring == null) {
+            Ring r = new Ring(bufferSize);
+            Thread consumer = new Thread(r, "framework-log");
+            consumer.setDaemon(true);
+            r.consumer = consumer;
+            consumer.start();
+            shutdownHook = new Thread(r::drain, "framework-log-flush");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+            ring = r;
+        }
+        return ring;
+    }
+
+    /**
+     * Arrêt du contexte: écrit les messages en attente, arrête le thread "framework-log" et
+     * retire le hook d'arrêt de la JVM (qui retiendrait le chargeur de classes de
+     * l'application après un redéploiement).
+     */
+    public static synchronized void shutdown() {
+        stopped = true;
+        Ring r = ring;
+        if (r == null) {
+            return;
+        }
+        ring = null;
+        r.stop();
+        r.drain();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM déjà en cours d'arrêt: le hook écrit ce qui reste
+        }
+        shutdownHook = null;
+    }
+
+    private static final class Record {
+        final Level level;
+        final String message;
+        final Throwable error;
+
+        Record(Level level, String message, Throwable error) {
+            this.level = level;
+            this.message = message;
+            this.error = error;
+        }
+
+        void write() {
+            PrintStream out = level.ordinal() >= Level.WARN.ordinal() ? System.err : System.out;
+            out.println(message);
+            if (error != null) {
+                error.printStackTrace(out);
+            }
+        }
+    }
+
+    /**
+     * Anneau borné MPSC. Les producteurs réservent une position par CAS sur tail puis
+     * publient l'enregistrement dans la case; le consommateur lit dans l'ordre des
+     * positions et libère la case (null) avant d'avancer head.
+     */
+    private static final class Ring implements Runnable {
+        private static final long IDLE_PARK_NANOS = 50_000_000L;
+
+        private final AtomicReferenceArray<Record> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+        private volatile boolean waiting;
+        private volatile boolean running = true;
+        volatile Thread consumer;
+
+        Ring(int requested) {
+            int capacity = Integer.highestOneBit(Math.max(64, requested));
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        boolean offer(Record record) {
+            long position;
+            do {
+                position = tail.get();
+                if (position - head.get() >= slots.length()) {
+                    return false;
+                }
+            } while (!tail.compareAndSet(position, position + 1));
+            slots.lazySet((int) position & mask, record);
+            if (waiting) {
+                LockSupport.unpark(consumer);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                if (drain() == 0) {
+                    waiting = true;
+                    if (slots.get((int) head.get() & mask) == null) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    waiting = false;
+                }
+            }
+            drain();
+        }
+
+        /**
+         * Arrête le consommateur après un dernier passage (attente bornée à une seconde).
+         */
+        void stop() {
+            running = false;
+            Thread thread = consumer;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Écrit tout ce qui est publié. Une case réservée mais pas encore remplie
+         * arrête la boucle (le producteur la remplira juste après).
+         */
+        synchronized int drain() {
+            int count = 0;
+            while (true) {
+                long position = head.get();
+                int index = (int) position & mask;
+                Record record = slots.get(index);
+                if (record == null) {
+                    return count;
+                }
+                slots.lazySet(index, null);
+                head.lazySet(position + 1);
+                try {
+                    record.write();
+                } catch (Throwable ignored) {
+                    // la console ne doit pas arrêter le thread de journalisation
+                }
+                count++;
+            }
+        }
+    }
+}
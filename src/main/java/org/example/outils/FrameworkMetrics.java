@@ -0,0 +1,42 @@
+package org.example.outils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registre des métriques du framework (compteurs et jauges nommés).
+ *
+ * Les composants enregistrent une fonction de lecture au démarrage; la lecture
+ * n'a lieu qu'au moment de {@link #snapshot()}, le chemin des requêtes ne
+ * paie donc que l'incrément de ses propres compteurs.
+ */
+public final class FrameworkMetrics {
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentSkipListMap<>();
+
+    private FrameworkMetrics() {
+    }
+
+    public static void register(String name, LongSupplier gauge) {
+        GAUGES.put(name, gauge);
+    }
+
+    /**
+     * Retire toutes les métriques dont le nom commence par prefix.
+     */
+    public static void unregister(String prefix) {
+        GAUGES.keySet().removeIf(name -> name.startsWith(prefix));
+    }
+
+    /**
+     * Valeurs courantes, triées par nom.
+     */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Map.Entry<String, LongSupplier> entry : GAUGES.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getAsLong());
+        }
+        return values;
+    }
+}
@@ -5,10 +5,16 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 
 public class FrontFilter implements Filter {
 
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        // Paramètres du framework (context-param + init-param du filtre)
+        FrameworkConfig config = FrameworkConfig.load(filterConfig);
+        RouteCache.install(filterConfig.getServletContext(), config);
+    }
+
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
             throws IOException, ServletException {
@@ -28,24 +34,42 @@ public class FrontFilter implements Filter {
         ServletContext servletContext = request.getServletContext();
 
         HttpServletResponse response = (HttpServletResponse) servletResponse;
-        response.setContentType("text/plain;charset=UTF-8");
 
         // SPRINT 9: Utiliser handleRequestWithMethod pour supporter les méthodes HTTP ET JSON
         Object result = UrlDispatcher.handleRequestWithMethod(routePath, servletContext, request, httpMethod);
-        try (PrintWriter printWriter = response.getWriter()) {
-            if (result instanceof JsonResponse) {
-                // SPRINT 9: Si c'est une JsonResponse, afficher en JSON
-                JsonResponse json = (JsonResponse) result;
-                response.setContentType("application/json;charset=UTF-8");
-                response.setStatus(json.getCode());
-                printWriter.print(json.toJson());
-            } else if (result instanceof ModelView) {
-                ModelView mv = (ModelView) result;
-                printWriter.print("View: " + mv.getView() + "\n");
-                printWriter.print("Model: " + mv.getModel());
-            } else {
-                printWriter.print(result);
-            }
+        if (result instanceof AsyncResult) {
+            // Contrôleur asynchrone (CompletableFuture): réponse écrite à la fin du traitement
+            ((AsyncResult) result).dispatch(request, response, FrontFilter::render, false);
+            return;
+        }
+        try {
+            render(request, response, result);
+        } finally {
+            // réponse écrite: fin de la cloison @ConcurrencyLimit
+            UrlDispatcher.responseWritten(request);
+        }
+    }
+
+    private static void render(HttpServletRequest request, HttpServletResponse response, Object result)
+            throws IOException {
+        if (result instanceof ResponseCache.Entry) {
+            // Réponse @Cached: octets déjà sérialisés
+            ((ResponseCache.Entry) result).writeTo(request, response);
+            return;
+        }
+        if (result instanceof JsonResponse) {
+            // SPRINT 9: Si c'est une JsonResponse, écrire le JSON en flux (pas de PrintWriter)
+            ((JsonResponse) result).writeTo(request, response);
+            return;
+        }
+
+        String text;
+        if (result instanceof ModelView) {
+            ModelView mv = (ModelView) result;
+            text = "View: " + mv.getView() + "\n" + "Model: " + mv.getModel();
+        } else {
+            text = String.valueOf(result);
         }
+        ResponseBody.writeText(request, response, text);
     }
 }
\ No newline at end of file
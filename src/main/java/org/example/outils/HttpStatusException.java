@@ -0,0 +1,21 @@
+package org.example.outils;
+
+/**
+ * Erreur liée à la requête du client, avec le code HTTP à renvoyer
+ * (400 corps invalide, 413 corps trop gros...). UrlDispatcher la transforme en
+ * JsonResponse.error(message, code) pour une méthode @JSON.
+ */
+public class HttpStatusException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public HttpStatusException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,536 @@
+package org.example.outils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lecteur JSON en flux, qui lie directement vers le type cible.
+ *
+ * Les octets sont lus par blocs dans un tampon du pool et décodés en UTF-8 au fil
+ * de l'eau: le corps n'est jamais chargé en entier. Les objets sont liés via le
+ * {@link BeanPlan} de leur classe (POJO, record); les propriétés inconnues sont
+ * sautées sans être construites. Object / Map / List sans type précis donnent
+ * LinkedHashMap, ArrayList, String, Long (BigInteger au-delà) / BigDecimal, Boolean.
+ *
+ * Garde-fous: au-delà de maxBytes octets lus -> 413, au-delà de maxDepth niveaux
+ * d'imbrication ou JSON invalide -> 400 ({@link HttpStatusException}).
+ */
+final class JsonReader implements AutoCloseable {
+    private static final BufferPool POOL = new BufferPool(JsonWriter.BUFFER_SIZE, 64);
+
+    private final InputStream in;
+    private final long maxBytes;
+    private final int maxDepth;
+    private byte[] buf;
+    private int pos;
+    private int limit;
+    private long consumed;
+    private int depth;
+    private final StringBuilder text = new StringBuilder();
+
+    JsonReader(InputStream in, long maxBytes, int maxDepth) {
+        this.in = in;
+        this.maxBytes = maxBytes;
+        this.maxDepth = maxDepth;
+        this.buf = POOL.acquire();
+    }
+
+    /**
+     * Lit le document entier (une valeur, puis uniquement des blancs).
+     * @return la valeur, ou null si le corps est vide
+     */
+    Object readDocument(Type type) throws IOException {
+        if (skipWhitespace() < 0) {
+            return null;
+        }
+        Object value = read(type);
+        if (skipWhitespace() >= 0) {
+            throw syntax("contenu après la fin du document");
+        }
+        return value;
+    }
+
+    // ---------------------------------------------------------------- liaison
+
+    private Object read(Type type) throws IOException {
+        Class<?> raw = rawClass(type);
+        int c = skipWhitespace();
+        switch (c) {
+            case '{':
+                if (raw == Object.class || Map.class.isAssignableFrom(raw)) {
+                    return readMap(typeArgument(type, 1));
+                }
+                if (BeanPlan.isBeanType(raw)) {
+                    return readBean(BeanPlan.of(raw));
+                }
+                throw syntax("objet inattendu pour " + raw.getSimpleName());
+            case '[':
+                return readArray(type, raw);
+            case '"':
+                pos++;
+                return convert(readString(), raw, true);
+            case 't':
+                expect("true");
+                return convert("true", raw, false);
+            case 'f':
+                expect("false");
+                return convert("false", raw, false);
+            case 'n':
+                expect("null");
+                return null;
+            case -1:
+                throw syntax("fin de document inattendue");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    String number = readNumber();
+                    if (raw == Object.class || raw == Number.class) {
+                        return toNumber(number);
+                    }
+                    return convert(number, raw, false);
+                }
+                throw syntax("caractère inattendu '" + (char) c + "'");
+        }
+    }
+
+    private Object readBean(BeanPlan plan) throws IOException {
+        enter();
+        Object[] values = new Object[plan.getProperties().length];
+        pos++;  // '{'
+        if (skipWhitespace() == '}') {
+            pos++;
+        } else {
+            while (true) {
+                String name = readName();
+                BeanPlan.Property property = plan.getProperty(name);
+                if (property != null) {
+                    values[property.getIndex()] = read(property.getGenericType());
+                } else {
+                    skipValue();
+                }
+                if (endOfContainer('}')) {
+                    break;
+                }
+            }
+        }
+        depth--;
+        try {
+            return plan.instantiate(values);
+        } catch (Exception e) {
+            throw new HttpStatusException(400, "Corps JSON invalide pour " + plan.getType().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private Map<String, Object> readMap(Type valueType) throws IOException {
+        enter();
+        Map<String, Object> map = new LinkedHashMap<>();
+        pos++;  // '{'
+        if (skipWhitespace() == '}') {
+            pos++;
+        } else {
+            while (true) {
+                String name = readName();
+                map.put(name, read(valueType));
+                if (endOfContainer('}')) {
+                    break;
+                }
+            }
+        }
+        depth--;
+        return map;
+    }
+
+    private Object readArray(Type type, Class<?> raw) throws IOException {
+        Type elementType;
+        if (raw.isArray()) {
+            elementType = type instanceof GenericArrayType
+                    ? ((GenericArrayType) type).getGenericComponentType() : raw.getComponentType();
+        } else if (raw == Object.class || Collection.class.isAssignableFrom(raw)) {
+            elementType = typeArgument(type, 0);
+        } else {
+            throw syntax("tableau inattendu pour " + raw.getSimpleName());
+        }
+        enter();
+        List<Object> items = new ArrayList<>();
+        pos++;  // '['
+        if (skipWhitespace() == ']') {
+            pos++;
+        } else {
+            while (true) {
+                items.add(read(elementType));
+                if (endOfContainer(']')) {
+                    break;
+                }
+            }
+        }
+        depth--;
+        if (raw.isArray()) {
+            Class<?> component = raw.getComponentType();
+            Object array = Array.newInstance(component, items.size());
+            for (int i = 0; i < items.size(); i++) {
+                Object item = items.get(i);
+                if (item == null && component.isPrimitive()) {
+                    throw syntax("null dans un tableau de " + component.getSimpleName());
+                }
+                Array.set(array, i, item);
+            }
+            return array;
+        }
+        if (Set.class.isAssignableFrom(raw)) {
+            return new LinkedHashSet<>(items);
+        }
+        return items;
+    }
+
+    /**
+     * Valeur simple vers le type cible, via le {@link ConverterRegistry}.
+     */
+    private Object convert(String value, Class<?> raw, boolean quoted) {
+        if (raw == Object.class) {
+            return quoted ? value : Boolean.valueOf(value);
+        }
+        if (raw == String.class || raw == CharSequence.class) {
+            return value;
+        }
+        TypeConverter<?> converter = ConverterRegistry.getDefault().find(raw);
+        if (converter == null) {
+            throw new HttpStatusException(400, "Valeur '" + value + "' non convertible en " + raw.getSimpleName());
+        }
+        Object converted;
+        try {
+            converted = converter.convert(value);
+        } catch (Exception e) {
+            converted = null;
+        }
+        if (converted == null) {
+            throw new HttpStatusException(400, "Valeur '" + value + "' non convertible en " + raw.getSimpleName());
+        }
+        return converted;
+    }
+
+    // ---------------------------------------------------------------- saut de valeurs inconnues
+
+    private void skipValue() throws IOException {
+        int c = skipWhitespace();
+        switch (c) {
+            case '{':
+            case '[':
+                int close = c == '{' ? '}' : ']';
+                enter();
+                pos++;
+                if (skipWhitespace() == close) {
+                    pos++;
+                } else {
+                    while (true) {
+                        if (close == '}') {
+                            readName();
+                        }
+                        skipValue();
+                        if (endOfContainer(close)) {
+                            break;
+                        }
+                    }
+                }
+                depth--;
+                return;
+            case '"':
+                pos++;
+                readString();
+                return;
+            case 't':
+                expect("true");
+                return;
+            case 'f':
+                expect("false");
+                return;
+            case 'n':
+                expect("null");
+                return;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber();
+                    return;
+                }
+                throw syntax(c < 0 ? "fin de document inattendue" : "caractère inattendu '" + (char) c + "'");
+        }
+    }
+
+    // ---------------------------------------------------------------- lexique
+
+    private void enter() {
+        if (++depth > maxDepth) {
+            throw new HttpStatusException(400, "Corps JSON trop imbriqué (max " + maxDepth + " niveaux)");
+        }
+    }
+
+    /**
+     * Après une valeur: ',' (on continue) ou le caractère fermant (fin du conteneur).
+     */
+    private boolean endOfContainer(int close) throws IOException {
+        int c = skipWhitespace();
+        pos++;
+        if (c == ',') {
+            return false;
+        }
+        if (c == close) {
+            return true;
+        }
+        throw syntax("',' ou '" + (char) close + "' attendu");
+    }
+
+    private String readName() throws IOException {
+        if (skipWhitespace() != '"') {
+            throw syntax("nom de propriété attendu");
+        }
+        pos++;
+        String name = readString();
+        if (skipWhitespace() != ':') {
+            throw syntax("':' attendu");
+        }
+        pos++;
+        return name;
+    }
+
+    /**
+     * Chaîne après le guillemet ouvrant: échappements JSON et UTF-8 décodés.
+     */
+    private String readString() throws IOException {
+        StringBuilder sb = text;
+        sb.setLength(0);
+        while (true) {
+            int b = nextByte();
+            if (b == '"') {
+                return sb.toString();
+            }
+            if (b == '\\') {
+                int e = nextByte();
+                switch (e) {
+                    case '"': sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/': sb.append('/'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u': sb.append((char) hex4()); break;
+                    default: throw syntax("échappement invalide");
+                }
+            } else if (b < 0x20) {
+                throw syntax(b < 0 ? "chaîne non terminée" : "caractère de contrôle dans une chaîne");
+            } else if (b < 0x80) {
+                sb.append((char) b);
+            } else if ((b & 0xE0) == 0xC0) {
+                sb.append((char) (((b & 0x1F) << 6) | continuation()));
+            } else if ((b & 0xF0) == 0xE0) {
+                sb.append((char) (((b & 0x0F) << 12) | (continuation() << 6) | continuation()));
+            } else if ((b & 0xF8) == 0xF0) {
+                int cp = ((b & 0x07) << 18) | (continuation() << 12) | (continuation() << 6) | continuation();
+                sb.appendCodePoint(cp);
+            } else {
+                throw syntax("UTF-8 invalide");
+            }
+        }
+    }
+
+    private int continuation() throws IOException {
+        int b = nextByte();
+        if ((b & 0xC0) != 0x80) {
+            throw syntax("UTF-8 invalide");
+        }
+        return b & 0x3F;
+    }
+
+    private int hex4() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int d = Character.digit(nextByte(), 16);
+            if (d < 0) {
+                throw syntax("échappement \\u invalide");
+            }
+            value = (value << 4) | d;
+        }
+        return value;
+    }
+
+    private String readNumber() throws IOException {
+        StringBuilder sb = text;
+        sb.setLength(0);
+        while (true) {
+            int c = peekByte();
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                sb.append((char) c);
+                pos++;
+            } else {
+                String number = sb.toString();
+                if (!isNumber(number)) {
+                    throw syntax("nombre invalide '" + number + "'");
+                }
+                return number;
+            }
+        }
+    }
+
+    /**
+     * Grammaire JSON: -?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?
+     */
+    private static boolean isNumber(String s) {
+        int len = s.length();
+        int i = 0;
+        if (i < len && s.charAt(i) == '-') {
+            i++;
+        }
+        int start = i;
+        i = digits(s, i);
+        if (i == start || (s.charAt(start) == '0' && i - start > 1)) {
+            return false;
+        }
+        if (i < len && s.charAt(i) == '.') {
+            start = ++i;
+            i = digits(s, i);
+            if (i == start) {
+                return false;
+            }
+        }
+        if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+                i++;
+            }
+            start = i;
+            i = digits(s, i);
+            if (i == start) {
+                return false;
+            }
+        }
+        return i == len;
+    }
+
+    private static int digits(String s, int i) {
+        while (i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Nombre sans type cible: Long, BigInteger hors de l'intervalle d'un long, BigDecimal
+     * s'il a une partie décimale ou un exposant.
+     */
+    private Object toNumber(String number) {
+        try {
+            if (number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0) {
+                return new BigDecimal(number);
+            }
+            // 18 chiffres tiennent toujours dans un long
+            return number.length() <= 18 ? (Object) Long.valueOf(number) : toInteger(number);
+        } catch (NumberFormatException e) {
+            // exposant hors limites (1e9999999999)
+            throw syntax("nombre invalide '" + number + "'");
+        }
+    }
+
+    private static Object toInteger(String number) {
+        BigInteger value = new BigInteger(number);
+        return value.bitLength() < Long.SIZE ? (Object) value.longValue() : value;
+    }
+
+    private void expect(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (nextByte() != literal.charAt(i)) {
+                throw syntax(literal + " attendu");
+            }
+        }
+    }
+
+    /**
+     * Saute les blancs et renvoie le caractère suivant sans le consommer (-1 en fin de flux).
+     */
+    private int skipWhitespace() throws IOException {
+        while (true) {
+            int c = peekByte();
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int peekByte() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buf[pos] & 0xFF;
+    }
+
+    private int nextByte() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) {
+            return false;
+        }
+        consumed += n;
+        if (consumed > maxBytes) {
+            throw new HttpStatusException(413, "Corps de requête trop volumineux (max " + maxBytes + " octets)");
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private HttpStatusException syntax(String message) {
+        return new HttpStatusException(400, "JSON invalide: " + message);
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        return Object.class;
+    }
+
+    /**
+     * Argument générique n° index (List&lt;T&gt; -> T, Map&lt;K, V&gt; -> V), Object si absent.
+     */
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < args.length) {
+                return args[index];
+            }
+            return args[args.length - 1];
+        }
+        return Object.class;
+    }
+
+    @Override
+    public void close() {
+        POOL.release(buf);
+        buf = null;
+    }
+}
@@ -1,8 +1,21 @@
 package org.example.outils;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Sprint 9: Classe pour formater les réponses JSON selon la norme
@@ -14,12 +27,22 @@ import java.util.Map;
  *   "data": {...} ou [...],
  *   "count": 10  (si c'est une liste)
  * }
+ *
+ * data peut aussi être un Stream / Iterator / Iterable: il est alors écrit ligne par
+ * ligne (tableau JSON en chunked, ou NDJSON selon l'en-tête Accept), sans "count".
+ *
+ * Pour un GET, la réponse porte un ETag (304 si If-None-Match correspond); data peut
+ * être un {@link Versioned} pour éviter la sérialisation quand le client est à jour.
  */
 public class JsonResponse {
     private String status;
     private int code;
     private Object data;
     private Integer count;
+    private Map<String, String> headers;  // en-têtes HTTP supplémentaires (Retry-After...), sinon null
+
+    /** Délai maximal entre deux envois pour un résultat en flux. */
+    private static final long FLUSH_INTERVAL_NANOS = 200_000_000L;
 
     public JsonResponse() {
         this.status = "success";
@@ -78,6 +101,21 @@ public class JsonResponse {
         }
     }
 
+    /**
+     * Ajoute un en-tête HTTP à la réponse (ex. Retry-After sur un 503).
+     */
+    public JsonResponse header(String name, String value) {
+        if (headers == null) {
+            headers = new LinkedHashMap<>();
+        }
+        headers.put(name, value);
+        return this;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers != null ? headers : Collections.emptyMap();
+    }
+
     public Integer getCount() {
         return count;
     }
@@ -90,118 +128,169 @@ public class JsonResponse {
      * Convertit la réponse en JSON manuellement (sans dépendance externe)
      */
     public String toJson() {
-        StringBuilder json = new StringBuilder();
-        json.append("{");
-        json.append("\"status\":\"").append(escapeJson(status)).append("\",");
-        json.append("\"code\":").append(code);
-        
-        if (count != null) {
-            json.append(",\"count\":").append(count);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writeTo(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        
-        json.append(",\"data\":");
-        json.append(convertToJson(data));
-        
-        json.append("}");
-        return json.toString();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
     }
 
     /**
-     * Convertit un objet en JSON (simple, sans dépendance)
+     * Écrit la réponse en UTF-8 dans le flux, sans construire de String intermédiaire.
      */
-    private String convertToJson(Object obj) {
-        if (obj == null) {
-            return "null";
-        }
-        
-        if (obj instanceof String) {
-            return "\"" + escapeJson((String) obj) + "\"";
-        }
-        
-        if (obj instanceof Number || obj instanceof Boolean) {
-            return obj.toString();
+    public void writeTo(OutputStream out) throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        try {
+            write(writer);
+        } catch (Throwable e) {
+            writer.abandon();
+            throw e;
         }
-        
-        if (obj instanceof List) {
-            List<?> list = (List<?>) obj;
-            StringBuilder sb = new StringBuilder("[");
-            for (int i = 0; i < list.size(); i++) {
-                if (i > 0) sb.append(",");
-                sb.append(convertToJson(list.get(i)));
+        writer.close();
+    }
+
+    /**
+     * Écrit la réponse HTTP: Content-Type, code, puis le document en flux.
+     * Content-Length est fixé quand le document tient dans le tampon du JsonWriter.
+     */
+    public void writeTo(HttpServletResponse response) throws IOException {
+        writeTo(null, response);
+    }
+
+    /**
+     * Comme {@link #writeTo(HttpServletResponse)}, avec compression négociée
+     * (Accept-Encoding, voir {@link ResponseBody}); si data est un Stream / Iterator /
+     * Iterable (hors Collection), les lignes sont écrites au fur et à mesure
+     * (voir {@link #writeRows(HttpServletRequest, HttpServletResponse)}).
+     */
+    public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            if (headers != null) {
+                headers.forEach(response::setHeader);
             }
-            sb.append("]");
-            return sb.toString();
-        }
-        
-        if (obj instanceof Map) {
-            Map<?, ?> map = (Map<?, ?>) obj;
-            StringBuilder sb = new StringBuilder("{");
-            boolean first = true;
-            for (Map.Entry<?, ?> entry : map.entrySet()) {
-                if (entry.getKey() == null) continue;  // Ignorer les clés null
-                if (!first) sb.append(",");
-                first = false;
-                String key = entry.getKey().toString();
-                if (key.isEmpty()) continue;  // Ignorer les clés vides
-                sb.append("\"").append(escapeJson(key)).append("\":");
-                sb.append(convertToJson(entry.getValue()));
+            if (data instanceof Versioned && code == 200) {
+                if (ResponseBody.notModified(request, response, (Versioned<?>) data)) {
+                    return;
+                }
+                resolveVersioned();
             }
-            sb.append("}");
-            return sb.toString();
+            if (isRows(data)) {
+                writeRows(request, response);
+                return;
+            }
+            response.setContentType("application/json;charset=UTF-8");
+            response.setStatus(code);
+            JsonWriter writer = new JsonWriter(ResponseBody.of(request, response, code == 200));
+            try {
+                write(writer);
+            } catch (Throwable e) {
+                // document incomplet: rien n'est envoyé, l'erreur remonte au gestionnaire
+                writer.abandon();
+                throw e;
+            }
+            writer.close();
+            // document complet: publié dans le cache de la route (@Cached) et aux requêtes en attente
+            ResponseCache.commit(request, response);
+        } finally {
+            ResponseCache.abandon(request);
         }
-        
-        // Pour les objets custom, utiliser réflexion simple
-        return convertObjectToJson(obj);
     }
 
     /**
-     * Convertit un objet custom en JSON via réflexion
+     * Résultat en flux: Stream, Iterator, ou Iterable qui n'est pas une Collection
+     * (une List reste une réponse classique avec "count").
      */
-    private String convertObjectToJson(Object obj) {
-        if (obj == null) return "null";
-        
+    static boolean isRows(Object data) {
+        return data instanceof Stream || data instanceof Iterator
+                || (data instanceof Iterable && !(data instanceof Collection));
+    }
+
+    /**
+     * Lignes écrites une par une, sans matérialiser le résultat:
+     *   - Accept: application/x-ndjson (ou jsonl): une valeur JSON par ligne, sans enveloppe
+     *   - sinon: enveloppe habituelle, "data" étant un tableau écrit en chunked
+     * Le tampon est envoyé quand il est plein, et au moins toutes les FLUSH_INTERVAL_NANOS
+     * pour un producteur lent. Si le client se déconnecte, l'écriture échoue: la lecture
+     * s'arrête et le Stream (ou l'Iterator AutoCloseable) est fermé.
+     */
+    private void writeRows(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean ndjson = acceptsNdjson(request);
+        response.setContentType(ndjson ? "application/x-ndjson;charset=UTF-8" : "application/json;charset=UTF-8");
+        response.setStatus(code);
+        long rows = 0;
+        JsonWriter writer = new JsonWriter(ResponseBody.of(request, response));
         try {
-            StringBuilder sb = new StringBuilder("{");
-            java.lang.reflect.Field[] fields = obj.getClass().getDeclaredFields();
-            boolean first = true;
-            
-            for (java.lang.reflect.Field field : fields) {
-                // Ignorer les champs statiques
-                if (java.lang.reflect.Modifier.isStatic(field.getModifiers())) {
-                    continue;
+            if (!ndjson) {
+                writer.beginObject();
+                writer.name("status").value(status != null ? status : "");
+                writer.name("code").value(code);
+                writer.name("data").beginArray();
+            }
+            Iterator<?> iterator = JsonWriter.iterator(data);
+            long lastFlush = System.nanoTime();
+            while (iterator.hasNext()) {
+                writer.value(iterator.next());
+                if (ndjson) {
+                    writer.newline();
+                }
+                rows++;
+                if (System.nanoTime() - lastFlush > FLUSH_INTERVAL_NANOS) {
+                    writer.flush();
+                    lastFlush = System.nanoTime();
                 }
-                
-                field.setAccessible(true);
-                Object value = field.get(obj);
-                
-                if (!first) sb.append(",");
-                first = false;
-                
-                sb.append("\"").append(field.getName()).append("\":");
-                sb.append(convertToJson(value));
             }
-            
-            sb.append("}");
-            return sb.toString();
-        } catch (Exception e) {
-            // En cas d'erreur, retourner toString() entre guillemets
-            return "\"" + escapeJson(obj.toString()) + "\"";
+            if (!ndjson) {
+                writer.endArray();
+                writer.endObject();
+            }
+            writer.close();
+        } catch (IOException e) {
+            // client déconnecté: inutile de continuer à produire
+            writer.abandon();
+            long written = rows;
+            FrameworkLog.debug(() -> "⚠️ [JsonResponse] Flux interrompu après " + written + " lignes: " + e);
+        } catch (RuntimeException | Error e) {
+            // erreur du producteur: le document n'est pas terminé (ni fin de flux compressé)
+            writer.abandon();
+            throw e;
+        } finally {
+            closeRows(data);
         }
     }
 
-    /**
-     * Échappe les caractères spéciaux JSON
-     */
-    private String escapeJson(String str) {
-        if (str == null) return "";
-        // Important: échapper backslash EN PREMIER avant les autres caractères
-        return str.replace("\\", "\\\\")
-                  .replace("\"", "\\\"")
-                  .replace("/", "\\/")
-                  .replace("\b", "\\b")
-                  .replace("\f", "\\f")
-                  .replace("\n", "\\n")
-                  .replace("\r", "\\r")
-                  .replace("\t", "\\t");
+    private static boolean acceptsNdjson(HttpServletRequest request) {
+        String accept = request != null ? request.getHeader("Accept") : null;
+        return accept != null && (accept.contains("ndjson") || accept.contains("jsonl")
+                || accept.contains("json-lines") || accept.contains("jsonlines"));
+    }
+
+    private static void closeRows(Object data) {
+        if (data instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) data).close();
+            } catch (Exception e) {
+                FrameworkLog.warn(() -> "⚠️ [JsonResponse] Fermeture du flux impossible: " + e);
+            }
+        }
+    }
+
+    private void resolveVersioned() {
+        if (data instanceof Versioned) {
+            setData(((Versioned<?>) data).get());
+        }
+    }
+
+    private void write(JsonWriter writer) throws IOException {
+        resolveVersioned();
+        writer.beginObject();
+        writer.name("status").value(status != null ? status : "");
+        writer.name("code").value(code);
+        if (count != null) {
+            writer.name("count").value(count.longValue());
+        }
+        writer.name("data").value(data);
+        writer.endObject();
     }
 }
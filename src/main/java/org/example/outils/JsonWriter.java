@@ -0,0 +1,526 @@
+package org.example.outils;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Générateur JSON en flux: les caractères sont encodés en UTF-8 directement dans un
+ * tampon d'octets emprunté à un pool, vidé vers l'OutputStream quand il est plein.
+ *
+ * La mémoire par réponse est donc bornée par la taille du tampon, quelle que soit la
+ * taille des données. Vers une HttpServletResponse, le flux n'est ouvert qu'au premier
+ * vidage: si tout le document tient dans le tampon, {@link #close()} fixe
+ * Content-Length avant d'écrire (sinon la réponse part en chunked). La compression
+ * éventuelle est appliquée en flux par le {@link ResponseBody}.
+ *
+ * Usage: {@code try (JsonWriter w = new JsonWriter(response)) { w.value(data); }}
+ * Si l'écriture peut échouer en cours de document (accesseur, collection modifiée...),
+ * appeler {@link #abandon()} sur erreur et {@link #close()} seulement après un succès:
+ * close() termine la réponse comme un document complet.
+ */
+public final class JsonWriter implements AutoCloseable {
+    static final int BUFFER_SIZE = 8192;
+    private static final BufferPool POOL = new BufferPool(BUFFER_SIZE, 64);
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    /** Échappement par caractère ASCII: 0 = aucun, 'u' = \\u00XX, sinon la lettre qui suit '\'. */
+    private static final byte[] ESCAPE = new byte[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPE[c] = 'u';
+        }
+        ESCAPE['\b'] = 'b';
+        ESCAPE['\f'] = 'f';
+        ESCAPE['\n'] = 'n';
+        ESCAPE['\r'] = 'r';
+        ESCAPE['\t'] = 't';
+        ESCAPE['"'] = '"';
+        ESCAPE['\\'] = '\\';
+        ESCAPE['/'] = '/';
+    }
+
+    private final ResponseBody body;
+    private OutputStream out;
+    private byte[] buf;
+    private int pos;
+    private boolean flushed;
+
+    /** Vrai quand une valeur vient d'être écrite au niveau courant (une virgule est due). */
+    private boolean needComma;
+
+    public JsonWriter(OutputStream out) {
+        this.body = null;
+        this.out = out;
+        this.buf = POOL.acquire();
+    }
+
+    public JsonWriter(HttpServletResponse response) {
+        this(ResponseBody.plain(response));
+    }
+
+    /**
+     * Vers une réponse dont le corps peut être compressé (voir {@link ResponseBody}).
+     */
+    JsonWriter(ResponseBody body) {
+        this.body = body;
+        this.buf = POOL.acquire();
+    }
+
+    // ---------------------------------------------------------------- structure
+
+    public JsonWriter beginObject() throws IOException {
+        separator();
+        writeByte('{');
+        needComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        writeByte('}');
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        separator();
+        writeByte('[');
+        needComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        writeByte(']');
+        needComma = true;
+        return this;
+    }
+
+    /**
+     * Nom de propriété; la valeur suit immédiatement.
+     */
+    public JsonWriter name(String name) throws IOException {
+        separator();
+        writeQuoted(name);
+        writeByte(':');
+        needComma = false;
+        return this;
+    }
+
+    // ---------------------------------------------------------------- valeurs simples
+
+    public JsonWriter nullValue() throws IOException {
+        separator();
+        writeBytes(NULL, 0, NULL.length);
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        separator();
+        writeQuoted(value);
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separator();
+        byte[] literal = value ? TRUE : FALSE;
+        writeBytes(literal, 0, literal.length);
+        needComma = true;
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        separator();
+        writeLong(value);
+        needComma = true;
+        return this;
+    }
+
+    /**
+     * Nombre sous la forme de toString() (comportement historique: NaN/Infinity inclus).
+     */
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(value.longValue());
+        }
+        separator();
+        writeAscii(value.toString());
+        needComma = true;
+        return this;
+    }
+
+    // ---------------------------------------------------------------- valeurs quelconques
+
+    /**
+     * Écrit n'importe quelle valeur: String, Number, Boolean, Map, Collection, tableau,
+     * Stream / Iterator / Iterable (consommés), ou objet (voir {@link ObjectSerializer}).
+     */
+    public JsonWriter value(Object value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (value instanceof String) {
+            return value((String) value);
+        }
+        if (value instanceof Number) {
+            return value((Number) value);
+        }
+        if (value instanceof Boolean) {
+            return value(((Boolean) value).booleanValue());
+        }
+        if (value instanceof Map) {
+            return writeMap((Map<?, ?>) value);
+        }
+        if (value instanceof Collection) {
+            beginArray();
+            for (Object item : (Collection<?>) value) {
+                value(item);
+            }
+            return endArray();
+        }
+        if (value.getClass().isArray()) {
+            return writeArray(value);
+        }
+        if (value instanceof Iterable || value instanceof Iterator || value instanceof Stream) {
+            beginArray();
+            Iterator<?> items = iterator(value);
+            while (items.hasNext()) {
+                value(items.next());
+            }
+            return endArray();
+        }
+        return writeObject(value);
+    }
+
+    private JsonWriter writeMap(Map<?, ?> map) throws IOException {
+        beginObject();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getKey() == null) continue;  // Ignorer les clés null
+            String key = entry.getKey().toString();
+            if (key.isEmpty()) continue;  // Ignorer les clés vides
+            name(key);
+            value(entry.getValue());
+        }
+        return endObject();
+    }
+
+    private JsonWriter writeArray(Object array) throws IOException {
+        beginArray();
+        if (array instanceof Object[]) {
+            for (Object item : (Object[]) array) {
+                value(item);
+            }
+        } else {
+            int length = Array.getLength(array);
+            for (int i = 0; i < length; i++) {
+                value(Array.get(array, i));
+            }
+        }
+        return endArray();
+    }
+
+    /**
+     * Objet custom: sérialiseur préparé une fois par classe ({@link ObjectSerializer}).
+     */
+    private JsonWriter writeObject(Object obj) throws IOException {
+        ObjectSerializer.of(obj.getClass()).write(obj, this);
+        return this;
+    }
+
+    /**
+     * Nom de propriété déjà encodé par {@link #encodeName(String)}.
+     */
+    JsonWriter rawName(byte[] encodedName) throws IOException {
+        separator();
+        writeBytes(encodedName, 0, encodedName.length);
+        needComma = false;
+        return this;
+    }
+
+    /**
+     * "nom": échappé et encodé en UTF-8, pour les noms connus à l'avance.
+     */
+    static byte[] encodeName(String name) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(name.length() + 3);
+        try (JsonWriter writer = new JsonWriter(bytes)) {
+            writer.writeQuoted(name);
+            writer.writeByte(':');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // ---------------------------------------------------------------- encodage
+
+    private void separator() throws IOException {
+        if (needComma) {
+            writeByte(',');
+        }
+    }
+
+    private void writeQuoted(String s) throws IOException {
+        writeByte('"');
+        writeEscaped(s);
+        writeByte('"');
+    }
+
+    /**
+     * Chaîne échappée et encodée en UTF-8, en une seule passe, directement dans le tampon.
+     *
+     * Les suites de caractères ASCII sans échappement (cas courant) sont copiées par une
+     * boucle serrée; la table ESCAPE donne la séquence de chaque caractère à échapper:
+     * \\, \", \/ (conservé pour la compatibilité), \b \f \n \r \t, et \\u00XX pour
+     * les autres caractères de contrôle. Les paires de surrogates donnent 4 octets UTF-8.
+     */
+    private void writeEscaped(String s) throws IOException {
+        int len = s.length();
+        int i = 0;
+        while (i < len) {
+            // Suite ASCII sans échappement: 1 octet par caractère, limitée à la place libre
+            if (buf.length - pos < 6) {
+                flushBuffer();
+            }
+            int limit = Math.min(len, i + buf.length - pos);
+            while (i < limit) {
+                char c = s.charAt(i);
+                if (c >= 0x80 || ESCAPE[c] != 0) {
+                    break;
+                }
+                buf[pos++] = (byte) c;
+                i++;
+            }
+            if (i == limit) {
+                continue;
+            }
+            char c = s.charAt(i++);
+            if (c < 0x80) {
+                ensure(6);
+                byte escape = ESCAPE[c];
+                buf[pos++] = '\\';
+                buf[pos++] = escape;
+                if (escape == 'u') {
+                    buf[pos++] = '0';
+                    buf[pos++] = '0';
+                    buf[pos++] = HEX[c >> 4];
+                    buf[pos++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                ensure(2);
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i < len && Character.isLowSurrogate(s.charAt(i))) {
+                int cp = Character.toCodePoint(c, s.charAt(i++));
+                ensure(4);
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // surrogate isolé: non représentable en UTF-8, échappé tel quel
+                ensure(6);
+                buf[pos++] = '\\';
+                buf[pos++] = 'u';
+                buf[pos++] = HEX[(c >> 12) & 0xF];
+                buf[pos++] = HEX[(c >> 8) & 0xF];
+                buf[pos++] = HEX[(c >> 4) & 0xF];
+                buf[pos++] = HEX[c & 0xF];
+            } else {
+                ensure(3);
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Texte ASCII (nombres): par morceaux de la place libre du tampon, comme writeEscaped,
+     * un BigDecimal pouvant dépasser la taille du tampon.
+     */
+    private void writeAscii(String s) throws IOException {
+        int len = s.length();
+        int i = 0;
+        while (i < len) {
+            if (pos == buf.length) {
+                flushBuffer();
+            }
+            int limit = Math.min(len, i + buf.length - pos);
+            while (i < limit) {
+                buf[pos++] = (byte) s.charAt(i++);
+            }
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + (value % 10));
+            value /= 10;
+        }
+        pos = end;
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (pos == buf.length) {
+            flushBuffer();
+        }
+        buf[pos++] = (byte) b;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buf.length - pos) {
+            flushBuffer();
+            if (length > buf.length) {
+                stream().write(bytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buf, pos, length);
+        pos += length;
+    }
+
+    /**
+     * Garantit n octets libres (n ≤ taille du tampon).
+     */
+    private void ensure(int n) throws IOException {
+        if (buf.length - pos < n) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (pos > 0) {
+            stream().write(buf, 0, pos);
+            pos = 0;
+        }
+        flushed = true;
+    }
+
+    private OutputStream stream() throws IOException {
+        if (out == null) {
+            out = body.open();
+        }
+        return out;
+    }
+
+    /**
+     * Fin d'une ligne NDJSON: la valeur suivante commence sans virgule.
+     */
+    JsonWriter newline() throws IOException {
+        writeByte('\n');
+        needComma = false;
+        return this;
+    }
+
+    /**
+     * Envoie le contenu du tampon et vide le flux (la réponse part alors en chunked).
+     */
+    public void flush() throws IOException {
+        flushBuffer();
+        stream().flush();
+    }
+
+    /**
+     * Itérateur sur un résultat en flux: Stream, Iterator ou Iterable.
+     */
+    static Iterator<?> iterator(Object value) {
+        if (value instanceof Stream) {
+            return ((Stream<?>) value).iterator();
+        }
+        if (value instanceof Iterator) {
+            return (Iterator<?>) value;
+        }
+        return ((Iterable<?>) value).iterator();
+    }
+
+    /**
+     * Octets écrits mais pas encore envoyés.
+     */
+    int buffered() {
+        return pos;
+    }
+
+    /**
+     * Abandonne un document incomplet, à la place de {@link #close()}: le tampon (et le
+     * compresseur éventuel) retourne au pool sans être envoyé et la réponse n'est pas
+     * terminée (ni Content-Length, ni ETag, ni fin de flux compressé). Si rien n'a encore été vidé, rien n'est envoyé: le
+     * gestionnaire d'erreurs peut encore répondre. Sans effet après close().
+     */
+    public void abandon() {
+        if (buf == null) {
+            return;
+        }
+        POOL.release(buf);
+        buf = null;
+        pos = 0;
+        if (body != null) {
+            body.abandon();
+        }
+    }
+
+    /**
+     * Termine le document: fixe Content-Length si rien n'a encore été envoyé,
+     * vide le tampon et le rend au pool. Le flux sous-jacent n'est pas fermé.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buf == null) {
+            return;
+        }
+        try {
+            if (body == null) {
+                flushBuffer();
+                out.flush();
+            } else {
+                try {
+                    if (!flushed) {
+                        // tout le document est dans le tampon: taille connue
+                        body.complete(buf, pos);
+                        pos = 0;
+                    } else {
+                        flushBuffer();
+                    }
+                } finally {
+                    body.finish();
+                }
+            }
+        } finally {
+            POOL.release(buf);
+            buf = null;
+        }
+    }
+}
@@ -1,57 +1,45 @@
 package org.example.outils;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class MethodInfo {
     private final Class<?> controllerClass;
     private final Method method;
     private final String urlPattern;
-    private final List<String> parameterNames;
-    private final Pattern regexPattern;
+    private final PathPattern pathPattern;
+    private final ArgumentBinder[] binders;  // un binder par argument, préparé au scan
+    private final ControllerInvoker invoker;
+    private final RouteOptions options;  // options d'écriture de la réponse (annotations de la méthode)
+    private volatile ControllerProvider controllerProvider;
 
     public MethodInfo(Class<?> controllerClass, Method method, String urlPattern) {
         this.controllerClass = controllerClass;
         this.method = method;
         this.urlPattern = urlPattern;
-        this.parameterNames = new ArrayList<>();
-        this.regexPattern = buildRegexPattern(urlPattern);
+        // Pattern découpé en segments (sans regex): /zavatra/{valeur} -> ["", "zavatra", {valeur}]
+        this.pathPattern = new PathPattern(urlPattern);
+        this.binders = ArgumentBinder.plan(method, pathPattern.getParameterNames());
+        // Invoker préparé au scan (MethodHandle, réflexion en secours)
+        this.invoker = ControllerInvoker.of(method);
+        this.options = RouteOptions.of(method);
     }
 
-    private Pattern buildRegexPattern(String pattern) {
-        // Extraire les noms de paramètres {param}
-        Pattern paramPattern = Pattern.compile("\\{([^/]+)\\}");
-        Matcher matcher = paramPattern.matcher(pattern);
-        
-        while (matcher.find()) {
-            parameterNames.add(matcher.group(1));
-        }
-        
-        // Convertir le pattern en regex : /zavatra/{valeur} -> /zavatra/([^/]+)
-        String regex = pattern.replaceAll("\\{[^/]+\\}", "([^/]+)");
-        regex = "^" + regex + "$";
-        
-        return Pattern.compile(regex);
+    public boolean matches(String url) {
+        return pathPattern.matches(url);
     }
 
-    public boolean matches(String url) {
-        return regexPattern.matcher(url).matches();
+    /**
+     * Vérifie l'URL et enregistre les positions des paramètres dans match (sans allocation).
+     */
+    public boolean match(String url, RouteMatch match) {
+        return pathPattern.match(url, match);
     }
 
     public List<String> extractParameters(String url) {
-        List<String> values = new ArrayList<>();
-        Matcher matcher = regexPattern.matcher(url);
-        
-        if (matcher.matches()) {
-            for (int i = 1; i <= matcher.groupCount(); i++) {
-                values.add(matcher.group(i));
-            }
-        }
-        
-        return values;
+        return pathPattern.extractParameters(url);
     }
 
     public Class<?> getControllerClass() {
@@ -67,11 +55,42 @@ public class MethodInfo {
     }
 
     public List<String> getParameterNames() {
-        return parameterNames;
+        return pathPattern.getParameterNames();
+    }
+
+    /**
+     * Construit les arguments de la méthode à partir du plan préparé au scan.
+     */
+    public Object[] bindArguments(HttpServletRequest request, RouteMatch match) {
+        return ArgumentBinder.bindAll(binders, request, match);
+    }
+
+    public ControllerInvoker getInvoker() {
+        return invoker;
+    }
+
+    public RouteOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Fournisseur d'instances du contrôleur, attribué par le ControllerRegistry au démarrage.
+     */
+    public ControllerProvider getControllerProvider() {
+        ControllerProvider provider = controllerProvider;
+        if (provider == null) {
+            provider = ControllerRegistry.fallback().provider(controllerClass);
+            controllerProvider = provider;
+        }
+        return provider;
+    }
+
+    public void setControllerProvider(ControllerProvider controllerProvider) {
+        this.controllerProvider = controllerProvider;
     }
 
     @Override
     public String toString() {
         return controllerClass.getSimpleName() + "#" + method.getName();
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,9 @@
 package org.example.outils;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Représente un mapping de méthode HTTP vers une action contrôleur.
@@ -16,53 +15,54 @@ public class MethodMapping {
     private final Method method;
     private final String urlPattern;
     private final String httpMethod;  // GET, POST, PUT, DELETE, etc.
-    private final List<String> parameterNames;
-    private final Pattern regexPattern;
+    private final PathPattern pathPattern;
+    private final ArgumentBinder[] binders;  // un binder par argument, préparé au scan
+    private final ControllerInvoker invoker;
+    private final RouteOptions options;  // options d'écriture de la réponse (annotations de la méthode)
+    private final ResponseCache responseCache;  // @Cached, sinon null
+    private final PathPattern[] cacheEvictions;  // @CacheEvict, sinon null
+    private final SingleFlight singleFlight;  // @GetMapping(coalesce = true), sinon null
+    private final BlockingExecutor blocking;  // @Blocking, sinon null
+    private final ConcurrencyLimiter limiter;  // @ConcurrencyLimit, sinon null
+    private final RateLimiter rateLimiter;  // @RateLimit, sinon null
+    private volatile ControllerProvider controllerProvider;  // instances selon le scope du contrôleur
 
     public MethodMapping(Class<?> controllerClass, Method method, String urlPattern, String httpMethod) {
         this.controllerClass = controllerClass;
         this.method = method;
         this.urlPattern = urlPattern;
         this.httpMethod = httpMethod != null ? httpMethod.toUpperCase() : "GET";
-        this.parameterNames = new ArrayList<>();
-        this.regexPattern = buildRegexPattern(urlPattern);
-    }
-
-    private Pattern buildRegexPattern(String pattern) {
-        // Extraire les noms de paramètres {param}
-        Pattern paramPattern = Pattern.compile("\\{([^/]+)\\}");
-        Matcher matcher = paramPattern.matcher(pattern);
-        
-        while (matcher.find()) {
-            parameterNames.add(matcher.group(1));
-        }
-        
-        // Convertir le pattern en regex : /users/{id} -> /users/([^/]+)
-        String regex = pattern.replaceAll("\\{[^/]+\\}", "([^/]+)");
-        regex = "^" + regex + "$";
-        
-        return Pattern.compile(regex);
+        // Pattern découpé en segments (sans regex): /users/{id} -> ["", "users", {id}]
+        this.pathPattern = new PathPattern(urlPattern);
+        this.binders = ArgumentBinder.plan(method, pathPattern.getParameterNames());
+        // Invoker préparé au scan (MethodHandle, réflexion en secours)
+        this.invoker = ControllerInvoker.of(method);
+        this.options = RouteOptions.of(method);
+        this.responseCache = ResponseCache.of(method, urlPattern, this.httpMethod, options);
+        this.cacheEvictions = ResponseCache.evictions(method, urlPattern);
+        this.singleFlight = SingleFlight.of(method, urlPattern, this.httpMethod);
+        this.blocking = BlockingExecutor.of(method, urlPattern, this.httpMethod);
+        this.limiter = ConcurrencyLimiter.of(method, urlPattern, this.httpMethod);
+        this.rateLimiter = RateLimiter.of(method, urlPattern, this.httpMethod, pathPattern);
     }
 
     public boolean matches(String url, String method) {
-        return regexPattern.matcher(url).matches() && this.httpMethod.equalsIgnoreCase(method);
+        return this.httpMethod.equalsIgnoreCase(method) && pathPattern.matches(url);
     }
 
     public boolean matchesUrl(String url) {
-        return regexPattern.matcher(url).matches();
+        return pathPattern.matches(url);
+    }
+
+    /**
+     * Vérifie l'URL et enregistre les positions des paramètres dans match (sans allocation).
+     */
+    public boolean match(String url, RouteMatch match) {
+        return pathPattern.match(url, match);
     }
 
     public List<String> extractParameters(String url) {
-        List<String> values = new ArrayList<>();
-        Matcher matcher = regexPattern.matcher(url);
-        
-        if (matcher.matches()) {
-            for (int i = 1; i <= matcher.groupCount(); i++) {
-                values.add(matcher.group(i));
-            }
-        }
-        
-        return values;
+        return pathPattern.extractParameters(url);
     }
 
     public Class<?> getControllerClass() {
@@ -81,8 +81,72 @@ public class MethodMapping {
         return httpMethod;
     }
 
+    public PathPattern getPathPattern() {
+        return pathPattern;
+    }
+
     public List<String> getParameterNames() {
-        return parameterNames;
+        return pathPattern.getParameterNames();
+    }
+
+    /**
+     * Construit les arguments de la méthode à partir du plan préparé au scan.
+     */
+    public Object[] bindArguments(HttpServletRequest request, RouteMatch match) {
+        return ArgumentBinder.bindAll(binders, request, match);
+    }
+
+    public ControllerInvoker getInvoker() {
+        return invoker;
+    }
+
+    public RouteOptions getOptions() {
+        return options;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    BlockingExecutor getBlocking() {
+        return blocking;
+    }
+
+    ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Invalide les caches désignés par @CacheEvict (après une invocation réussie).
+     */
+    void evictCaches(RouteMatch match, RouteTable table) {
+        if (cacheEvictions != null) {
+            ResponseCache.evict(cacheEvictions, pathPattern.getParameterNames(), match, table);
+        }
+    }
+
+    /**
+     * Fournisseur d'instances du contrôleur, attribué par le ControllerRegistry au démarrage.
+     */
+    public ControllerProvider getControllerProvider() {
+        ControllerProvider provider = controllerProvider;
+        if (provider == null) {
+            provider = ControllerRegistry.fallback().provider(controllerClass);
+            controllerProvider = provider;
+        }
+        return provider;
+    }
+
+    public void setControllerProvider(ControllerProvider controllerProvider) {
+        this.controllerProvider = controllerProvider;
     }
 
     @Override
@@ -0,0 +1,165 @@
+package org.example.outils;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sérialiseur JSON d'un objet custom, préparé une fois par classe (cache ClassValue).
+ *
+ * La réflexion (champs, setAccessible) n'a lieu qu'à la première sérialisation du type;
+ * ensuite chaque propriété est lue par un MethodHandle et son nom est déjà encodé
+ * ("nom": en UTF-8). Règles, identiques pour toutes les classes:
+ *   - record: composants, dans l'ordre de déclaration, via leurs accesseurs
+ *   - autre classe: champs non statiques et non transient, superclasses d'abord
+ *     (un champ masqué par la sous-classe n'est écrit qu'une fois)
+ *   - enum: nom de la constante
+ *   - type dont les champs ne sont pas accessibles (JDK: LocalDate...): toString()
+ */
+final class ObjectSerializer {
+    private static final ClassValue<ObjectSerializer> SERIALIZERS = new ClassValue<ObjectSerializer>() {
+        @Override
+        protected ObjectSerializer computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int BOOLEAN = 3;
+    private static final int OBJECT = 0;
+
+    private final Property[] properties;
+    private final boolean asString;
+    private final boolean asEnum;
+
+    private ObjectSerializer(Property[] properties, boolean asString, boolean asEnum) {
+        this.properties = properties;
+        this.asString = asString;
+        this.asEnum = asEnum;
+    }
+
+    static ObjectSerializer of(Class<?> type) {
+        return SERIALIZERS.get(type);
+    }
+
+    void write(Object obj, JsonWriter writer) throws IOException {
+        if (asEnum) {
+            writer.value(((Enum<?>) obj).name());
+            return;
+        }
+        if (asString) {
+            writer.value(obj.toString());
+            return;
+        }
+        writer.beginObject();
+        for (Property property : properties) {
+            writer.rawName(property.key);
+            try {
+                switch (property.kind) {
+                    case INT:
+                        writer.value((long) (int) property.getter.invokeExact(obj));
+                        break;
+                    case LONG:
+                        writer.value((long) property.getter.invokeExact(obj));
+                        break;
+                    case BOOLEAN:
+                        writer.value((boolean) property.getter.invokeExact(obj));
+                        break;
+                    default:
+                        writer.value((Object) property.getter.invokeExact(obj));
+                        break;
+                }
+            } catch (IOException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+        writer.endObject();
+    }
+
+    private static ObjectSerializer create(Class<?> type) {
+        if (type.isEnum() || (type.getSuperclass() != null && type.getSuperclass().isEnum())) {
+            return new ObjectSerializer(null, false, true);
+        }
+        try {
+            List<Property> properties = new ArrayList<>();
+            if (type.isRecord()) {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                for (RecordComponent component : type.getRecordComponents()) {
+                    properties.add(property(component.getName(), component.getType(), lookup.unreflect(component.getAccessor())));
+                }
+            } else {
+                for (Field field : fields(type).values()) {
+                    MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+                    properties.add(property(field.getName(), field.getType(), lookup.unreflectGetter(field)));
+                }
+            }
+            return new ObjectSerializer(properties.toArray(new Property[0]), false, false);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // module non ouvert (types du JDK...): comportement historique, valeur toString()
+            return new ObjectSerializer(null, true, false);
+        }
+    }
+
+    /**
+     * Champs sérialisables, superclasses d'abord; le champ de la sous-classe remplace un homonyme.
+     */
+    private static Map<String, Field> fields(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        Map<String, Field> fields = new LinkedHashMap<>();
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                int mod = field.getModifiers();
+                if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || field.isSynthetic()) {
+                    continue;
+                }
+                fields.put(field.getName(), field);
+            }
+        }
+        return fields;
+    }
+
+    private static Property property(String name, Class<?> type, MethodHandle getter) {
+        int kind;
+        MethodType shape;
+        if (type == int.class || type == short.class || type == byte.class) {
+            kind = INT;
+            shape = MethodType.methodType(int.class, Object.class);
+        } else if (type == long.class) {
+            kind = LONG;
+            shape = MethodType.methodType(long.class, Object.class);
+        } else if (type == boolean.class) {
+            kind = BOOLEAN;
+            shape = MethodType.methodType(boolean.class, Object.class);
+        } else {
+            kind = OBJECT;
+            shape = MethodType.methodType(Object.class, Object.class);
+        }
+        return new Property(JsonWriter.encodeName(name), kind, getter.asType(shape));
+    }
+
+    private static final class Property {
+        final byte[] key;
+        final int kind;
+        final MethodHandle getter;
+
+        Property(byte[] key, int kind, MethodHandle getter) {
+            this.key = key;
+            this.kind = kind;
+            this.getter = getter;
+        }
+    }
+}
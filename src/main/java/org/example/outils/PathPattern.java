@@ -0,0 +1,153 @@
+package org.example.outils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pattern d'URL compilé en segments, sans expression régulière.
+ *
+ * /users/{id}/orders -> ["", "users", {id}, "orders"]
+ * Un segment peut contenir un paramètre entouré d'un préfixe/suffixe: /files/{name}.json
+ *
+ * La correspondance parcourt l'URL une seule fois et enregistre les positions
+ * (début/fin) des valeurs de paramètres dans un {@link RouteMatch} réutilisable.
+ */
+public final class PathPattern {
+    private final String pattern;
+    private final Segment[] segments;
+    private final List<String> parameterNames;
+
+    public PathPattern(String pattern) {
+        this.pattern = pattern;
+        List<Segment> parsed = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int start = 0;
+        int len = pattern.length();
+        while (true) {
+            int end = pattern.indexOf('/', start);
+            if (end < 0) end = len;
+            Segment segment = Segment.parse(pattern.substring(start, end));
+            if (segment.isParam()) {
+                names.add(segment.name);
+            }
+            parsed.add(segment);
+            if (end == len) break;
+            start = end + 1;
+        }
+        this.segments = parsed.toArray(new Segment[0]);
+        this.parameterNames = Collections.unmodifiableList(names);
+    }
+
+    public boolean matches(String url) {
+        return match(url, null);
+    }
+
+    /**
+     * Vérifie l'URL et, si out n'est pas null, y ajoute les positions des paramètres.
+     * En cas d'échec, out est remis dans son état initial.
+     */
+    public boolean match(String url, RouteMatch out) {
+        if (url == null) return false;
+        int base = out != null ? out.size() : 0;
+        int len = url.length();
+        int pos = 0;
+        for (int i = 0; i < segments.length; i++) {
+            if (pos > len) {
+                return fail(out, base);
+            }
+            int end = url.indexOf('/', pos);
+            if (end < 0) end = len;
+            boolean last = i == segments.length - 1;
+            if (last != (end == len)) {
+                return fail(out, base);
+            }
+            Segment segment = segments[i];
+            if (!segment.matches(url, pos, end)) {
+                return fail(out, base);
+            }
+            if (out != null && segment.isParam()) {
+                out.add(pos + segment.prefix.length(), end - segment.suffix.length());
+            }
+            pos = end + 1;
+        }
+        return true;
+    }
+
+    private static boolean fail(RouteMatch out, int base) {
+        if (out != null) out.truncate(base);
+        return false;
+    }
+
+    /**
+     * Extrait les valeurs des paramètres (API historique, alloue une liste).
+     */
+    public List<String> extractParameters(String url) {
+        RouteMatch match = new RouteMatch();
+        match.reset(url);
+        if (!match(url, match)) {
+            return new ArrayList<>();
+        }
+        return match.values();
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    Segment[] segments() {
+        return segments;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * Segment de pattern: littéral, ou paramètre avec préfixe/suffixe éventuels.
+     */
+    static final class Segment {
+        final String literal;
+        final String prefix;
+        final String name;
+        final String suffix;
+
+        private Segment(String literal, String prefix, String name, String suffix) {
+            this.literal = literal;
+            this.prefix = prefix;
+            this.name = name;
+            this.suffix = suffix;
+        }
+
+        static Segment parse(String text) {
+            int open = text.indexOf('{');
+            int close = text.lastIndexOf('}');
+            if (open < 0 || close < open) {
+                return new Segment(text, null, null, null);
+            }
+            return new Segment(null, text.substring(0, open), text.substring(open + 1, close), text.substring(close + 1));
+        }
+
+        boolean isParam() {
+            return literal == null;
+        }
+
+        /**
+         * Correspondance sur la portion [start, end) de l'URL.
+         * Un paramètre doit capturer au moins un caractère (équivalent de [^/]+).
+         */
+        boolean matches(String url, int start, int end) {
+            if (literal != null) {
+                return end - start == literal.length() && url.startsWith(literal, start);
+            }
+            return end - start > prefix.length() + suffix.length()
+                    && url.startsWith(prefix, start)
+                    && url.startsWith(suffix, end - suffix.length());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.outils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.annotation.RateLimit;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de débit d'une route @RateLimit, par clé client.
+ *
+ * Seau à jetons sous forme GCRA: l'état d'une clé est un seul long, l'instant d'arrivée
+ * théorique (TAT). Une requête avance le TAT d'un intervalle (1 / rate) et est acceptée
+ * si le TAT ne dépasse pas maintenant + burst intervalles. Mise à jour par compareAndSet:
+ * en régime établi, une lecture dans la table + un CAS par requête, sans verrou.
+ *
+ * Table des clés bornée (maxKeys): une clé dont le TAT est passé est équivalente à un
+ * seau plein et peut être oubliée. Quand la table est pleine, un seul thread la parcourt
+ * pour retirer ces clés expirées; si toutes sont actives, des clés quelconques sont
+ * retirées (le client concerné retrouve un seau plein): la mémoire reste bornée même
+ * face à des milliers de clés uniques.
+ *
+ * Métriques: rateLimit.&lt;route&gt;.allowed / limited / keys.
+ */
+final class RateLimiter {
+    private static final String MISSING_KEY = "";
+
+    private final String name;
+    private final long interval;  // nanosecondes par requête
+    private final long capacity;  // burst × interval
+    private final int burst;
+    private final String keyKind;
+    private final String keyName;
+    private final int keyIndex;  // position du paramètre d'URL pour "param:", sinon -1
+    private final int maxKeys;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+
+    private RateLimiter(String name, RateLimit annotation, PathPattern pathPattern) {
+        this.name = name;
+        double rate = annotation.rate() > 0 ? annotation.rate() : 1;
+        this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+        this.burst = annotation.burst() > 0 ? annotation.burst() : (int) Math.max(1, Math.ceil(rate));
+        this.capacity = interval * burst;
+        this.maxKeys = Math.max(1, annotation.maxKeys());
+        String key = annotation.key();
+        int colon = key.indexOf(':');
+        this.keyKind = colon > 0 ? key.substring(0, colon) : key;
+        this.keyName = colon > 0 ? key.substring(colon + 1) : null;
+        this.keyIndex = "param".equals(keyKind) ? pathPattern.getParameterNames().indexOf(keyName) : -1;
+        if (!"ip".equals(keyKind) && !"header".equals(keyKind) && !"param".equals(keyKind)) {
+            FrameworkLog.warn("⚠️ [RateLimiter] Clé inconnue '" + key + "' sur " + name + ": adresse du client utilisée");
+        }
+        String prefix = "rateLimit." + name + ".";
+        FrameworkMetrics.register(prefix + "allowed", allowed::sum);
+        FrameworkMetrics.register(prefix + "limited", limited::sum);
+        FrameworkMetrics.register(prefix + "keys", () -> buckets.size());
+    }
+
+    /**
+     * Limiteur de la route si la méthode ou son contrôleur est @RateLimit, sinon null.
+     */
+    static RateLimiter of(Method method, String urlPattern, String httpMethod, PathPattern pathPattern) {
+        RateLimit annotation = method.getAnnotation(RateLimit.class);
+        if (annotation == null) {
+            annotation = method.getDeclaringClass().getAnnotation(RateLimit.class);
+        }
+        return annotation != null ? new RateLimiter(httpMethod + " " + urlPattern, annotation, pathPattern) : null;
+    }
+
+    /**
+     * @return null si la requête est acceptée, sinon la réponse 429
+     */
+    JsonResponse check(HttpServletRequest request, RouteMatch match) {
+        AtomicLong bucket = bucket(key(request, match));
+        long now = System.nanoTime();
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + interval;
+            long wait = next - now - capacity;
+            if (wait > 0) {
+                limited.increment();
+                return tooManyRequests(wait, next - now);
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                allowed.increment();
+                return null;
+            }
+        }
+    }
+
+    private JsonResponse tooManyRequests(long waitNanos, long resetNanos) {
+        FrameworkLog.debug(() -> "🛑 [RateLimiter] Débit dépassé: " + name);
+        return JsonResponse.error("Trop de requêtes pour " + name, 429)
+                .header("Retry-After", String.valueOf(seconds(waitNanos)))
+                .header("RateLimit-Limit", String.valueOf(burst))
+                .header("RateLimit-Remaining", "0")
+                .header("RateLimit-Reset", String.valueOf(seconds(resetNanos - interval)));
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private String key(HttpServletRequest request, RouteMatch match) {
+        String key;
+        switch (keyKind) {
+            case "header":
+                key = request.getHeader(keyName);
+                break;
+            case "param":
+                key = keyIndex >= 0 && match != null && keyIndex < match.getParameterCount()
+                        ? match.value(keyIndex)
+                        : request.getParameter(keyName);
+                break;
+            default:
+                key = request.getRemoteAddr();
+                break;
+        }
+        return key != null ? key : MISSING_KEY;
+    }
+
+    private AtomicLong bucket(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            sweep();
+        }
+        // TAT initial dans le passé: seau plein
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime() - capacity));
+    }
+
+    /**
+     * Retire les clés expirées (seau plein), puis si nécessaire des clés quelconques.
+     * Un seul thread à la fois: les autres continuent sans attendre.
+     */
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+            int excess = buckets.size() - maxKeys + Math.max(1, maxKeys / 10);
+            Iterator<AtomicLong> it = buckets.values().iterator();
+            while (excess-- > 0 && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package org.example.outils;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * Corps de réponse écrit par un {@link JsonWriter} (ou un texte), avec négociation
+ * de la compression selon Accept-Encoding.
+ *
+ * Le writer appelle {@link #complete(byte[], int)} si tout le corps a tenu dans son
+ * tampon, sinon {@link #open()} au premier envoi; dans les deux cas la compression
+ * se fait en flux, sans seconde copie du corps:
+ *   - corps complet plus petit que compression.minSize: non compressé, Content-Length
+ *   - sinon, si le client accepte gzip (préféré) ou deflate: Content-Encoding
+ * Vary: Accept-Encoding est posé dès que la route peut être compressée.
+ *
+ * ETag (GET/HEAD d'une route @JSON, code 200): l'ETag est calculé sur les octets
+ * sérialisés avant tout envoi; si If-None-Match correspond, la réponse est un 304
+ * sans corps. Un corps plus grand que le tampon du writer est retenu en mémoire
+ * jusqu'à etag.maxBytes; au-delà, il part en flux sans ETag.
+ * Route @Cached: les octets envoyés sont aussi copiés pour le {@link ResponseCache}.
+ *
+ * Configuration (context-param / init-param):
+ *   compression.enabled  (défaut true)
+ *   compression.minSize  (défaut 1024 octets; au plus la taille du tampon du writer)
+ *   compression.level    (défaut 6, 1 = rapide ... 9 = meilleur)
+ *   etag.enabled         (défaut true)
+ *   etag.maxBytes        (défaut 262144 octets)
+ */
+public final class ResponseBody {
+    static final String SETTINGS_KEY = "responseBodySettings";
+
+    private final HttpServletResponse response;
+    private final String encoding;
+    private final int minSize;
+    private final int level;
+    private final boolean tagged;
+    private final String ifNoneMatch;
+    private final int tagMaxBytes;
+    private final ResponseCache.Recorder recorder;
+    private OutputStream out;
+    private CompressingOutputStream compressor;
+    private Capture capture;
+
+    private ResponseBody(HttpServletResponse response, String encoding, int minSize, int level,
+                         boolean tagged, String ifNoneMatch, int tagMaxBytes, ResponseCache.Recorder recorder) {
+        this.response = response;
+        this.encoding = encoding;
+        this.minSize = minSize;
+        this.level = level;
+        this.tagged = tagged;
+        this.ifNoneMatch = ifNoneMatch;
+        this.tagMaxBytes = tagMaxBytes;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Corps sans compression (Content-Length si le corps tient dans le tampon).
+     */
+    static ResponseBody plain(HttpServletResponse response) {
+        return new ResponseBody(response, null, 0, 0, false, null, 0, null);
+    }
+
+    static ResponseBody of(HttpServletRequest request, HttpServletResponse response) {
+        return of(request, response, false);
+    }
+
+    /**
+     * @param document true pour un document @JSON complet en 200: ETag et mise en cache possibles
+     */
+    static ResponseBody of(HttpServletRequest request, HttpServletResponse response, boolean document) {
+        if (request == null) {
+            return plain(response);
+        }
+        Settings settings = Settings.of(request.getServletContext());
+        RouteOptions options = RouteOptions.current(request);
+        String encoding = null;
+        if (settings.enabled && options.isCompressible()
+                && !"HEAD".equals(request.getMethod()) && !response.containsHeader("Content-Encoding")) {
+            response.addHeader("Vary", "Accept-Encoding");
+            encoding = negotiate(request.getHeader("Accept-Encoding"));
+        }
+        boolean tagged = document && settings.etag && options.isTaggable()
+                && isSafe(request) && !response.containsHeader("ETag");
+        ResponseCache.Recorder recorder = document ? ResponseCache.Recorder.current(request) : null;
+        if (encoding == null && !tagged && recorder == null) {
+            return plain(response);
+        }
+        return new ResponseBody(response, encoding, settings.minSize, settings.level,
+                tagged, tagged ? request.getHeader("If-None-Match") : null, settings.etagMaxBytes, recorder);
+    }
+
+    /**
+     * Réponse {@link Versioned}: pose ETag (et Last-Modified), puis répond 304 si le client
+     * a déjà cette version. Retourne true si la réponse est terminée.
+     */
+    static boolean notModified(HttpServletRequest request, HttpServletResponse response, Versioned<?> versioned) {
+        if (request == null || !isSafe(request)) {
+            return false;
+        }
+        response.setHeader("ETag", versioned.getETag());
+        long lastModified = versioned.getLastModified();
+        if (lastModified >= 0) {
+            response.setDateHeader("Last-Modified", lastModified);
+        }
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        boolean fresh;
+        if (ifNoneMatch != null) {
+            fresh = ETags.matches(ifNoneMatch, versioned.getETag());
+        } else {
+            fresh = lastModified >= 0 && ifModifiedSince(request) >= lastModified;
+        }
+        if (fresh) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+        return fresh;
+    }
+
+    /**
+     * Écrit un texte complet (UTF-8) avec les mêmes règles que le JSON.
+     */
+    public static void writeText(HttpServletRequest request, HttpServletResponse response, String text) throws IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ResponseBody body = of(request, response);
+        try {
+            body.complete(bytes, bytes.length);
+        } finally {
+            body.finish();
+        }
+    }
+
+    /**
+     * Premier envoi d'un corps plus grand que le tampon: la réponse part en chunked.
+     */
+    OutputStream open() throws IOException {
+        if (out == null) {
+            if (tagged) {
+                // l'ETag doit partir avant le corps: on retient la suite du document
+                capture = new Capture();
+                out = capture;
+            } else {
+                start();
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Corps entier connu: compressé s'il atteint le seuil, sinon envoyé avec Content-Length.
+     * Avec ETag: 304 sans corps si If-None-Match correspond.
+     */
+    void complete(byte[] bytes, int length) throws IOException {
+        boolean compressed = encoding != null && length >= minSize;
+        if (tagged) {
+            String etag = ETags.withEncoding(ETags.fromBytes(bytes, 0, length), compressed ? encoding : null);
+            response.setHeader("ETag", etag);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        if (compressed) {
+            compress().write(bytes, 0, length);
+            return;
+        }
+        response.setContentLength(length);
+        out = sink();
+        out.write(bytes, 0, length);
+    }
+
+    /**
+     * Termine le flux compressé (rend le Deflater au pool) ou vide la sortie.
+     */
+    void finish() throws IOException {
+        Capture captured = capture;
+        if (captured != null && captured.target == null) {
+            capture = null;
+            complete(captured.bytes, captured.count);
+        }
+        if (compressor != null) {
+            compressor.finish();
+        } else if (out != null) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Corps incomplet (erreur d'écriture, client déconnecté): rend le compresseur au pool
+     * sans terminer le flux et oublie le corps retenu pour l'ETag.
+     */
+    void abandon() {
+        capture = null;
+        if (compressor != null) {
+            compressor.abandon();
+        }
+    }
+
+    private OutputStream start() throws IOException {
+        out = encoding != null ? compress() : sink();
+        return out;
+    }
+
+    private OutputStream compress() throws IOException {
+        response.setHeader("Content-Encoding", encoding);
+        compressor = new CompressingOutputStream(sink(), encoding, level);
+        out = compressor;
+        return out;
+    }
+
+    private OutputStream sink() throws IOException {
+        OutputStream os = response.getOutputStream();
+        return recorder != null ? recorder.tee(os) : os;
+    }
+
+    /**
+     * gzip si accepté, sinon deflate, sinon null. Un codage avec q=0 est refusé; "*" vaut gzip.
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        for (String part : acceptEncoding.split(",")) {
+            String token = part.trim().toLowerCase(Locale.ROOT);
+            int semicolon = token.indexOf(';');
+            String name = semicolon >= 0 ? token.substring(0, semicolon).trim() : token;
+            if (semicolon >= 0 && isZeroQuality(token.substring(semicolon + 1))) {
+                continue;
+            }
+            if (name.equals(CompressingOutputStream.GZIP) || name.equals("x-gzip") || name.equals("*")) {
+                gzip = true;
+            } else if (name.equals(CompressingOutputStream.DEFLATE)) {
+                deflate = true;
+            }
+        }
+        return gzip ? CompressingOutputStream.GZIP : deflate ? CompressingOutputStream.DEFLATE : null;
+    }
+
+    private static boolean isSafe(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    private static long ifModifiedSince(HttpServletRequest request) {
+        try {
+            return request.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isZeroQuality(String params) {
+        int q = params.indexOf("q=");
+        if (q < 0) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(params.substring(q + 2).trim()) <= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Suite d'un document trop grand pour le tampon du writer, retenue pour l'ETag.
+     * Au-delà de etag.maxBytes, ce qui a été retenu est envoyé et la suite passe
+     * directement à la réponse (pas d'ETag).
+     */
+    private final class Capture extends OutputStream {
+        byte[] bytes = new byte[JsonWriter.BUFFER_SIZE * 2];
+        int count;
+        OutputStream target;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (target == null && count + len > tagMaxBytes) {
+                FrameworkLog.debug(() -> "[ResponseBody] Corps au-delà de etag.maxBytes: envoi sans ETag");
+                target = start();
+                target.write(bytes, 0, count);
+                bytes = null;
+            }
+            if (target != null) {
+                target.write(b, off, len);
+                return;
+            }
+            if (count + len > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(Math.max(bytes.length * 2, count + len), tagMaxBytes));
+            }
+            System.arraycopy(b, off, bytes, count, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+    }
+
+    /**
+     * Paramètres de compression et d'ETag lus une fois par configuration.
+     */
+    private static final class Settings {
+        final FrameworkConfig config;
+        final boolean enabled;
+        final int minSize;
+        final int level;
+        final boolean etag;
+        final int etagMaxBytes;
+
+        Settings(FrameworkConfig config) {
+            this.config = config;
+            this.enabled = config.getBoolean("compression.enabled", true);
+            this.minSize = Math.min(Math.max(0, config.getInt("compression.minSize", 1024)), JsonWriter.BUFFER_SIZE);
+            int configured = config.getInt("compression.level", 6);
+            this.level = configured >= Deflater.BEST_SPEED && configured <= Deflater.BEST_COMPRESSION
+                    ? configured : Deflater.DEFAULT_COMPRESSION;
+            this.etag = config.getBoolean("etag.enabled", true);
+            this.etagMaxBytes = Math.max(config.getInt("etag.maxBytes", 256 * 1024), JsonWriter.BUFFER_SIZE);
+        }
+
+        static Settings of(ServletContext ctx) {
+            FrameworkConfig config = FrameworkConfig.get(ctx);
+            Object attr = ctx != null ? ctx.getAttribute(SETTINGS_KEY) : null;
+            if (attr instanceof Settings && ((Settings) attr).config == config) {
+                return (Settings) attr;
+            }
+            Settings settings = new Settings(config);
+            if (ctx != null) {
+                ctx.setAttribute(SETTINGS_KEY, settings);
+            }
+            return settings;
+        }
+    }
+}
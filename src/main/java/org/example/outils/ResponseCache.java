@@ -0,0 +1,468 @@
+package org.example.outils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.annotation.CacheEvict;
+import org.example.annotation.Cached;
+import org.example.annotation.JSON;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache des réponses d'une route GET @JSON annotée {@link Cached}.
+ *
+ * Une entrée contient les octets tels qu'envoyés (déjà sérialisés, éventuellement
+ * compressés) et les en-têtes utiles (Content-Type, Content-Encoding, ETag, Vary):
+ * un succès coûte une recherche dans la map et une écriture du tampon, sans appel
+ * du contrôleur ni sérialisation.
+ *
+ * Remplissage: sur un échec, UrlDispatcher dépose un {@link Recorder} dans la requête;
+ * ResponseBody recopie les octets envoyés et JsonResponse les publie une fois le
+ * document écrit sans erreur (code 200 uniquement).
+ *
+ * Éviction: entrées expirées d'abord, puis les plus coûteuses à garder (inactives depuis
+ * longtemps et volumineuses) jusqu'à 90 % des limites maxEntries / maxBytes.
+ * Invalidation explicite: {@link CacheEvict} sur une méthode d'écriture.
+ */
+public final class ResponseCache {
+    public static final String RECORDER_KEY = "org.example.responseCache.recorder";
+
+    private final String name;
+    private final String[] params;
+    private final boolean compressible;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int maxEntryBytes;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean shrinking = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ResponseCache(String name, Cached cached, boolean compressible) {
+        this.name = name;
+        this.params = cached.params().clone();
+        this.compressible = compressible;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, cached.ttl()));
+        this.maxEntries = Math.max(1, cached.maxEntries());
+        this.maxBytes = Math.max(JsonWriter.BUFFER_SIZE, cached.maxBytes());
+        // une seule réponse ne peut occuper plus du quart du cache
+        this.maxEntryBytes = (int) Math.min(Integer.MAX_VALUE, maxBytes / 4);
+
+        String prefix = "responseCache." + name + ".";
+        FrameworkMetrics.register(prefix + "hits", hits::sum);
+        FrameworkMetrics.register(prefix + "misses", misses::sum);
+        FrameworkMetrics.register(prefix + "evictions", evictions::sum);
+        FrameworkMetrics.register(prefix + "entries", () -> entries.size());
+        FrameworkMetrics.register(prefix + "bytes", bytes::get);
+    }
+
+    /**
+     * Cache de la route si la méthode porte @Cached, sinon null.
+     */
+    static ResponseCache of(Method method, String urlPattern, String httpMethod, RouteOptions options) {
+        Cached cached = method.getAnnotation(Cached.class);
+        if (cached == null) {
+            return null;
+        }
+        if (!"GET".equals(httpMethod) || !method.isAnnotationPresent(JSON.class)) {
+            FrameworkLog.warn("⚠️ [ResponseCache] @Cached ignoré sur " + method.getDeclaringClass().getSimpleName()
+                    + "#" + method.getName() + ": réservé aux méthodes GET @JSON");
+            return null;
+        }
+        return new ResponseCache(httpMethod + " " + urlPattern, cached, options.isCompressible());
+    }
+
+    /**
+     * Patterns à invalider après la méthode (@CacheEvict), ou null.
+     */
+    static PathPattern[] evictions(Method method, String urlPattern) {
+        CacheEvict evict = method.getAnnotation(CacheEvict.class);
+        if (evict == null) {
+            return null;
+        }
+        String[] patterns = evict.value().length > 0 ? evict.value() : new String[] {urlPattern};
+        PathPattern[] result = new PathPattern[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            result[i] = new PathPattern(patterns[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Clé: chemin, paramètres de requête retenus (longueur:valeur, sans ambiguïté) et codage négocié.
+     */
+    String key(HttpServletRequest request, String path) {
+        StringBuilder key = new StringBuilder(path.length() + 16).append(path).append('?');
+        for (String param : params) {
+            String value = request.getParameter(param);
+            if (value != null) {
+                key.append(value.length()).append(':').append(value);
+            }
+            key.append('&');
+        }
+        if (compressible) {
+            String encoding = ResponseBody.negotiate(request.getHeader("Accept-Encoding"));
+            if (encoding != null) {
+                key.append('#').append(encoding);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Réponse en cache encore valide, sinon null.
+     */
+    Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.expiresAt >= 0) {
+            remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        entry.lastAccess = now;
+        hits.increment();
+        return entry;
+    }
+
+    /**
+     * Enregistreur des octets de la réponse à venir pour cette clé.
+     */
+    Recorder recorder(String key) {
+        return new Recorder(this, key, generation.get(), maxEntryBytes);
+    }
+
+    private void store(String key, Entry entry, long recordedGeneration) {
+        if (generation.get() != recordedGeneration) {
+            return;  // invalidé pendant le calcul de la réponse
+        }
+        Entry previous = entries.put(key, entry);
+        bytes.addAndGet(entry.body.length - (previous != null ? previous.body.length : 0));
+        if (generation.get() != recordedGeneration) {
+            remove(key, entry);
+            return;
+        }
+        if (entries.size() > maxEntries || bytes.get() > maxBytes) {
+            shrink();
+        }
+    }
+
+    private boolean remove(String key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            bytes.addAndGet(-entry.body.length);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ramène le cache sous 90 % des limites (un seul thread à la fois, les autres continuent).
+     */
+    private void shrink() {
+        if (!shrinking.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            List<Map.Entry<String, Entry>> candidates = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (now - e.getValue().expiresAt >= 0) {
+                    if (remove(e.getKey(), e.getValue())) {
+                        evictions.increment();
+                    }
+                } else {
+                    candidates.add(e);
+                }
+            }
+            long targetEntries = maxEntries * 9L / 10;
+            long targetBytes = maxBytes * 9 / 10;
+            if (entries.size() <= targetEntries && bytes.get() <= targetBytes) {
+                return;
+            }
+            // coût de conservation: inactivité x taille
+            candidates.sort((a, b) -> Double.compare(cost(b.getValue(), now), cost(a.getValue(), now)));
+            for (Map.Entry<String, Entry> e : candidates) {
+                if (entries.size() <= targetEntries && bytes.get() <= targetBytes) {
+                    break;
+                }
+                if (remove(e.getKey(), e.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            shrinking.set(false);
+        }
+    }
+
+    private static double cost(Entry entry, long now) {
+        return (double) (now - entry.lastAccess) * (entry.body.length + 256);
+    }
+
+    /**
+     * Vide les entrées d'un chemin concret (toutes variantes de paramètres et de codage).
+     */
+    void evictPath(String path) {
+        generation.incrementAndGet();
+        String prefix = path + "?";
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (e.getKey().startsWith(prefix) && remove(e.getKey(), e.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (remove(e.getKey(), e.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Invalidation après une méthode @CacheEvict réussie; les paramètres d'URL
+     * de la requête courante complètent les patterns. Les caches sont ceux des routes
+     * de la table (un cache de route retirée n'est plus atteignable).
+     */
+    static void evict(PathPattern[] patterns, List<String> names, RouteMatch match, RouteTable table) {
+        for (PathPattern pattern : patterns) {
+            ResponseCache cache = table.getResponseCache(pattern.getPattern());
+            if (cache == null) {
+                continue;
+            }
+            String path = expand(pattern, names, match);
+            if (path != null && !pattern.getParameterNames().isEmpty()) {
+                cache.evictPath(path);
+            } else {
+                cache.clear();
+            }
+            FrameworkLog.debug(() -> "🧹 [ResponseCache] Invalidation " + cache.name + (path != null ? " " + path : ""));
+        }
+    }
+
+    /**
+     * Chemin concret du pattern avec les valeurs de la requête, null si un paramètre manque.
+     */
+    private static String expand(PathPattern pattern, List<String> names, RouteMatch match) {
+        StringBuilder path = new StringBuilder();
+        PathPattern.Segment[] segments = pattern.segments();
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                path.append('/');
+            }
+            PathPattern.Segment segment = segments[i];
+            if (!segment.isParam()) {
+                path.append(segment.literal);
+                continue;
+            }
+            int index = names.indexOf(segment.name);
+            if (index < 0 || match == null || index >= match.getParameterCount()) {
+                return null;
+            }
+            path.append(segment.prefix).append(match.value(index)).append(segment.suffix);
+        }
+        return path.toString();
+    }
+
+    static boolean isCacheable(String httpMethod) {
+        return "GET".equals(httpMethod);
+    }
+
+    /**
+     * Publie la réponse enregistrée pour cette requête (document écrit sans erreur).
+     */
+    static void commit(HttpServletRequest request, HttpServletResponse response) {
+        Recorder recorder = Recorder.current(request);
+        if (recorder != null) {
+            request.removeAttribute(RECORDER_KEY);
+            recorder.commit(response);
+        }
+    }
+
+    /**
+     * Réponse non publiée (erreur d'écriture, flux, 304...): libère les requêtes en attente.
+     */
+    static void abandon(HttpServletRequest request) {
+        Recorder recorder = Recorder.current(request);
+        if (recorder != null) {
+            request.removeAttribute(RECORDER_KEY);
+            recorder.abandon();
+        }
+    }
+
+    /**
+     * Réponse en cache: octets envoyés et en-têtes associés.
+     */
+    public static final class Entry {
+        private final byte[] body;
+        private final String contentType;
+        private final String contentEncoding;
+        private final String etag;
+        private final String vary;
+        private final String lastModified;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private Entry(byte[] body, HttpServletResponse response, long now, long ttlNanos) {
+            this.body = body;
+            this.contentType = response.getContentType();
+            this.contentEncoding = response.getHeader("Content-Encoding");
+            this.etag = response.getHeader("ETag");
+            this.vary = response.getHeader("Vary");
+            this.lastModified = response.getHeader("Last-Modified");
+            this.expiresAt = now + ttlNanos;
+            this.lastAccess = now;
+        }
+
+        public void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            if (vary != null) {
+                response.setHeader("Vary", vary);
+            }
+            if (lastModified != null) {
+                response.setHeader("Last-Modified", lastModified);
+            }
+            if (etag != null) {
+                response.setHeader("ETag", etag);
+                if (request != null && ETags.matches(request.getHeader("If-None-Match"), etag)) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return;
+                }
+            }
+            if (contentEncoding != null) {
+                response.setHeader("Content-Encoding", contentEncoding);
+            }
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+
+        public int size() {
+            return body.length;
+        }
+    }
+
+    /**
+     * Copie des octets envoyés pour une clé; abandonne au-delà de maxBytes.
+     * Le résultat va au cache de la route et/ou aux requêtes identiques en attente
+     * ({@link SingleFlight}).
+     */
+    static final class Recorder {
+        private final ResponseCache cache;
+        private final String key;
+        private final long generation;
+        private final int maxBytes;
+        private CompletableFuture<Entry> flight;
+        private byte[] bytes = new byte[JsonWriter.BUFFER_SIZE];
+        private int count;
+
+        private Recorder(ResponseCache cache, String key, long generation, int maxBytes) {
+            this.cache = cache;
+            this.key = key;
+            this.generation = generation;
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Enregistreur sans cache, pour partager la réponse avec les requêtes en attente.
+         */
+        static Recorder forFlight(CompletableFuture<Entry> flight, int maxBytes) {
+            Recorder recorder = new Recorder(null, null, 0, maxBytes);
+            recorder.flight = flight;
+            return recorder;
+        }
+
+        void setFlight(CompletableFuture<Entry> flight) {
+            this.flight = flight;
+        }
+
+        static Recorder current(HttpServletRequest request) {
+            Object attr = request != null ? request.getAttribute(RECORDER_KEY) : null;
+            return attr instanceof Recorder ? (Recorder) attr : null;
+        }
+
+        /**
+         * Flux qui écrit dans target et garde une copie des octets.
+         */
+        OutputStream tee(OutputStream target) {
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[] {(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    record(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+            };
+        }
+
+        private void record(byte[] b, int off, int len) {
+            if (bytes == null) {
+                return;
+            }
+            if (count + len > maxBytes) {
+                bytes = null;  // trop gros pour être gardé
+                return;
+            }
+            if (count + len > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(Math.max(bytes.length * 2, count + len), maxBytes));
+            }
+            System.arraycopy(b, off, bytes, count, len);
+            count += len;
+        }
+
+        private void commit(HttpServletResponse response) {
+            if (bytes == null || response.getStatus() != HttpServletResponse.SC_OK) {
+                abandon();
+                return;
+            }
+            Entry entry = new Entry(Arrays.copyOf(bytes, count), response, System.nanoTime(),
+                    cache != null ? cache.ttlNanos : 0);
+            if (cache != null) {
+                cache.store(key, entry, generation);
+            }
+            if (flight != null) {
+                flight.complete(entry);
+            }
+        }
+
+        private void abandon() {
+            if (flight != null) {
+                flight.complete(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package org.example.outils;
+
+import jakarta.servlet.ServletContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache borné des résolutions de routes: (méthode HTTP, chemin normalisé) -> mapping + paramètres.
+ *
+ * Seules les routes dynamiques (/products/{id}) et les absences de route (404) sont
+ * mises en cache: UrlDispatcher résout d'abord les routes statiques par chemin exact
+ * ({@link Router#findStatic}) et ne consulte le cache qu'ensuite. Les métriques
+ * hits / misses et le sketch ne portent donc que sur des chemins qui peuvent y entrer.
+ *
+ * Structure associative par ensembles (8 emplacements par ensemble) dans un tableau
+ * atomique: pas de verrou, taille fixe. L'admission suit le principe TinyLFU: un
+ * nouveau chemin ne remplace une entrée que s'il a été demandé plus souvent qu'elle
+ * (fréquences estimées par un sketch count-min vieillissant). Un robot qui parcourt
+ * des milliers d'URL uniques ne peut donc pas vider le cache des URL chaudes.
+ *
+ * Chaque entrée porte la version de la table des routes ({@link RouteTable}) qui l'a
+ * produite: après une publication (ajout, retrait, rechargement), les anciennes entrées
+ * ne sont plus servies et sont remplacées au fil des requêtes, sans vidage global.
+ *
+ * Activation: init-param {@code routeCache.size} (nombre maximal d'entrées, 0 = désactivé).
+ */
+public final class RouteCache {
+    public static final String ROUTE_CACHE_KEY = "routeCache";
+    public static final String SIZE_PARAM = "routeCache.size";
+
+    private static final int WAYS = 8;
+    private static final int MAX_PATH_LENGTH = 512;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int setMask;
+    private final FrequencySketch sketch;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public RouteCache(int maxEntries) {
+        int sets = Integer.highestOneBit(Math.max(1, maxEntries / WAYS));
+        this.slots = new AtomicReferenceArray<>(sets * WAYS);
+        this.setMask = sets - 1;
+        this.sketch = new FrequencySketch(sets * WAYS);
+    }
+
+    /**
+     * Crée le cache selon la configuration et le publie dans le contexte (une seule fois).
+     * @return le cache ou null si désactivé
+     */
+    public static RouteCache install(ServletContext ctx, FrameworkConfig config) {
+        Object existing = ctx.getAttribute(ROUTE_CACHE_KEY);
+        if (existing instanceof RouteCache) {
+            return (RouteCache) existing;
+        }
+        int size = config.getInt(SIZE_PARAM, 0);
+        if (size <= 0) {
+            return null;
+        }
+        RouteCache cache = new RouteCache(size);
+        ctx.setAttribute(ROUTE_CACHE_KEY, cache);
+        FrameworkMetrics.register("routeCache.capacity", cache::capacity);
+        FrameworkMetrics.register("routeCache.hits", cache.hits::sum);
+        FrameworkMetrics.register("routeCache.misses", cache.misses::sum);
+        FrameworkMetrics.register("routeCache.evictions", cache.evictions::sum);
+        FrameworkMetrics.register("routeCache.rejections", cache.rejections::sum);
+        FrameworkLog.info("🗃️ [RouteCache] Cache de résolution activé: " + cache.capacity() + " entrées");
+        return cache;
+    }
+
+    /**
+     * @return l'entrée en cache pour cette version de la table (éventuellement négative,
+     *         cf. {@link Entry#isNotFound()}) ou null
+     */
+    public Entry get(String httpMethod, String path, long version) {
+        int hash = hash(httpMethod, path);
+        sketch.increment(hash);
+        int base = (hash & setMask) * WAYS;
+        for (int i = 0; i < WAYS; i++) {
+            Entry entry = slots.get(base + i);
+            if (entry != null && entry.version == version && entry.hash == hash
+                    && entry.path.equals(path) && entry.httpMethod.equals(httpMethod)) {
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Enregistre le résultat d'une résolution (mapping null = aucune route).
+     * Les routes statiques et les chemins trop longs ne sont pas conservés.
+     */
+    public void put(String httpMethod, String path, long version, MethodMapping mapping, RouteMatch match) {
+        if (path.length() > MAX_PATH_LENGTH) {
+            return;
+        }
+        if (mapping != null && match.getParameterCount() == 0) {
+            return;
+        }
+        int hash = hash(httpMethod, path);
+        Entry candidate = new Entry(httpMethod, path, hash, version, mapping, mapping != null ? match.copyBounds() : null);
+        int base = (hash & setMask) * WAYS;
+
+        int victimIndex = -1;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int i = 0; i < WAYS; i++) {
+            Entry entry = slots.get(base + i);
+            if (entry == null) {
+                if (slots.compareAndSet(base + i, null, candidate)) {
+                    return;
+                }
+                entry = slots.get(base + i);
+                if (entry == null) continue;
+            }
+            if (entry.hash == hash && entry.path.equals(path) && entry.httpMethod.equals(httpMethod)) {
+                if (entry.version < version) {
+                    slots.compareAndSet(base + i, entry, candidate);  // résolution d'une table périmée
+                }
+                return;
+            }
+            if (entry.version < version) {
+                // entrée d'une table périmée: jamais servie, remplacée en priorité
+                if (slots.compareAndSet(base + i, entry, candidate)) {
+                    evictions.increment();
+                    return;
+                }
+                continue;
+            }
+            int frequency = sketch.frequency(entry.hash);
+            if (frequency < victimFrequency) {
+                victimFrequency = frequency;
+                victimIndex = base + i;
+            }
+        }
+
+        // Admission TinyLFU: remplacer seulement si le candidat est plus fréquent que la victime
+        if (victimIndex >= 0 && sketch.frequency(hash) > victimFrequency) {
+            Entry victim = slots.get(victimIndex);
+            if (victim != null && slots.compareAndSet(victimIndex, victim, candidate)) {
+                evictions.increment();
+                return;
+            }
+        }
+        rejections.increment();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static int hash(String httpMethod, String path) {
+        int h = httpMethod.hashCode() * 31 + path.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Résolution mémorisée. Les paramètres sont conservés sous forme de positions:
+     * pour un chemin identique, elles sont identiques.
+     */
+    public static final class Entry {
+        private final String httpMethod;
+        private final String path;
+        private final int hash;
+        private final long version;
+        private final MethodMapping mapping;
+        private final int[] bounds;
+
+        private Entry(String httpMethod, String path, int hash, long version, MethodMapping mapping, int[] bounds) {
+            this.httpMethod = httpMethod;
+            this.path = path;
+            this.hash = hash;
+            this.version = version;
+            this.mapping = mapping;
+            this.bounds = bounds;
+        }
+
+        public boolean isNotFound() {
+            return mapping == null;
+        }
+
+        /**
+         * Recopie les positions des paramètres dans match.
+         * @return le mapping mis en cache (null pour un 404)
+         */
+        public MethodMapping restore(RouteMatch match) {
+            if (bounds != null) {
+                match.restoreBounds(bounds);
+            }
+            return mapping;
+        }
+    }
+
+    /**
+     * Sketch count-min (4 fonctions de hachage) à compteurs saturés à 15.
+     * Tous les compteurs sont divisés par deux après 10 × capacité incréments
+     * pour que les fréquences anciennes s'effacent. Les mises à jour ne sont pas
+     * atomiques: une perte occasionnelle d'incrément est sans conséquence pour une estimation.
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = {0x97cb3127, 0xb5b7a1e3, 0x9e3779b9, 0x7f4a7c15};
+        private static final int MAX_COUNT = 15;
+
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private final AtomicInteger additions = new AtomicInteger();
+
+        FrequencySketch(int capacity) {
+            int size = Integer.highestOneBit(Math.max(16, capacity * 4 - 1)) << 1;
+            this.counters = new byte[size];
+            this.mask = size - 1;
+            this.sampleSize = Math.max(10 * capacity, 160);
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int seed : SEEDS) {
+                int i = index(hash, seed);
+                if (counters[i] < MAX_COUNT) {
+                    counters[i]++;
+                    added = true;
+                }
+            }
+            if (added && additions.incrementAndGet() >= sampleSize) {
+                additions.set(0);
+                reset();
+            }
+        }
+
+        int frequency(int hash) {
+            int min = MAX_COUNT;
+            for (int seed : SEEDS) {
+                min = Math.min(min, counters[index(hash, seed)]);
+            }
+            return min;
+        }
+
+        private void reset() {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = (byte) (counters[i] >>> 1);
+            }
+        }
+
+        private int index(int hash, int seed) {
+            int h = (hash ^ seed) * 0x9e3779b1;
+            return (h ^ (h >>> 15)) & mask;
+        }
+    }
+}
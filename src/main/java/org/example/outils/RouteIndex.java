@@ -0,0 +1,83 @@
+package org.example.outils;
+
+import org.example.annotation.Controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index des routes produit à la compilation par le processeur d'annotations
+ * (module route-index-processor): évite le parcours du classpath au démarrage.
+ *
+ * Format de {@link #RESOURCE} (une ligne par route, # = commentaire):
+ *   org.example.test.ProductController GET /products/{id} get
+ * Seule la première colonne est utilisée au chargement: les contrôleurs listés sont
+ * chargés directement et leurs routes relues depuis les annotations (mêmes règles
+ * que le scan, voir {@link ClasspathScanner#addMappings}). Les autres colonnes
+ * servent à la lecture humaine de l'index.
+ *
+ * Plusieurs index (un par jar) sont fusionnés.
+ */
+public final class RouteIndex {
+    public static final String RESOURCE = "META-INF/org.example/routes.idx";
+
+    private RouteIndex() {
+    }
+
+    /**
+     * Routes des contrôleurs indexés, ou null si aucun index n'est présent (scan nécessaire).
+     */
+    public static Map<String, MethodMapping> load() throws IOException {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = RouteIndex.class.getClassLoader();
+        }
+        Enumeration<URL> resources = classLoader.getResources(RESOURCE);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+
+        Set<String> controllers = new LinkedHashSet<>();
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            FrameworkLog.debug(() -> "📇 [RouteIndex] Index: " + resource);
+            try (InputStream in = resource.openStream();
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) {
+                        continue;
+                    }
+                    int space = line.indexOf(' ');
+                    controllers.add(space > 0 ? line.substring(0, space) : line);
+                }
+            }
+        }
+
+        Map<String, MethodMapping> mappings = new HashMap<>();
+        for (String className : controllers) {
+            Class<?> cls;
+            try {
+                cls = Class.forName(className, true, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                // index périmé (classe supprimée depuis la compilation): ignorée
+                FrameworkLog.warn("⚠️ [RouteIndex] Contrôleur indexé introuvable: " + className);
+                continue;
+            }
+            if (cls.isAnnotationPresent(Controller.class)) {
+                ClasspathScanner.addMappings(cls, mappings);
+            }
+        }
+        return mappings;
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.outils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Résultat de correspondance d'une URL: positions (début/fin) des valeurs de paramètres.
+ *
+ * Une instance est réutilisée par thread ({@link #current(String)}): la résolution
+ * d'une route ne crée ni Matcher, ni liste, ni sous-chaîne. Les valeurs ne sont
+ * matérialisées qu'au moment de la conversion des arguments.
+ */
+public final class RouteMatch {
+    private static final ThreadLocal<RouteMatch> CURRENT = ThreadLocal.withInitial(RouteMatch::new);
+
+    private String path;
+    private int[] bounds = new int[16];
+    private int count;
+
+    /**
+     * Instance du thread courant, réinitialisée pour le chemin donné.
+     */
+    public static RouteMatch current(String path) {
+        RouteMatch match = CURRENT.get();
+        match.reset(path);
+        return match;
+    }
+
+    public void reset(String path) {
+        this.path = path;
+        this.count = 0;
+    }
+
+    void add(int start, int end) {
+        int i = count * 2;
+        if (i + 2 > bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        bounds[i] = start;
+        bounds[i + 1] = end;
+        count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    void truncate(int size) {
+        this.count = size;
+    }
+
+    /**
+     * Copie des positions, pour le cache de résolution.
+     */
+    int[] copyBounds() {
+        return Arrays.copyOf(bounds, count * 2);
+    }
+
+    /**
+     * Copie indépendante du thread courant, pour terminer une requête asynchrone
+     * sur un autre thread (l'instance du thread sera réutilisée entre-temps).
+     */
+    RouteMatch detach() {
+        RouteMatch copy = new RouteMatch();
+        copy.reset(path);
+        copy.restoreBounds(copyBounds());
+        return copy;
+    }
+
+    void restoreBounds(int[] saved) {
+        if (saved.length > bounds.length) {
+            bounds = Arrays.copyOf(bounds, saved.length);
+        }
+        System.arraycopy(saved, 0, bounds, 0, saved.length);
+        count = saved.length / 2;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getParameterCount() {
+        return count;
+    }
+
+    public int start(int index) {
+        return bounds[index * 2];
+    }
+
+    public int end(int index) {
+        return bounds[index * 2 + 1];
+    }
+
+    public String value(int index) {
+        return path.substring(start(index), end(index));
+    }
+
+    public List<String> values() {
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(value(i));
+        }
+        return values;
+    }
+}
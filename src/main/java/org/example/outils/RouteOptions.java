@@ -0,0 +1,51 @@
+package org.example.outils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.annotation.JSON;
+import org.example.annotation.NoCompression;
+
+import java.lang.reflect.Method;
+
+/**
+ * Options d'écriture de la réponse propres à une route, lues une fois au scan
+ * depuis les annotations de la méthode (et de sa classe).
+ *
+ * UrlDispatcher dépose les options de la route résolue dans la requête
+ * ({@link #REQUEST_KEY}); l'écriture de la réponse les relit avec {@link #current}.
+ */
+public final class RouteOptions {
+    public static final String REQUEST_KEY = "org.example.routeOptions";
+
+    static final RouteOptions DEFAULT = new RouteOptions(true, false);
+
+    private final boolean compressible;
+    private final boolean taggable;
+
+    private RouteOptions(boolean compressible, boolean taggable) {
+        this.compressible = compressible;
+        this.taggable = taggable;
+    }
+
+    static RouteOptions of(Method method) {
+        boolean compressible = !method.isAnnotationPresent(NoCompression.class)
+                && !method.getDeclaringClass().isAnnotationPresent(NoCompression.class);
+        boolean taggable = method.isAnnotationPresent(JSON.class);
+        return compressible && !taggable ? DEFAULT : new RouteOptions(compressible, taggable);
+    }
+
+    static RouteOptions current(HttpServletRequest request) {
+        Object attr = request != null ? request.getAttribute(REQUEST_KEY) : null;
+        return attr instanceof RouteOptions ? (RouteOptions) attr : DEFAULT;
+    }
+
+    public boolean isCompressible() {
+        return compressible;
+    }
+
+    /**
+     * Route @JSON: ETag et réponse 304 pour les GET (voir {@link ResponseBody}).
+     */
+    public boolean isTaggable() {
+        return taggable;
+    }
+}
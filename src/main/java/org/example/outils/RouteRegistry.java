@@ -0,0 +1,182 @@
+package org.example.outils;
+
+import jakarta.servlet.ServletContext;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Table des routes courante, publiée par une seule référence atomique.
+ *
+ * Lecture ({@link #snapshot()}): une lecture volatile, jamais de verrou. Une requête
+ * garde sa table jusqu'au bout, même si une autre est publiée entre-temps.
+ * Écriture (ajout / retrait à l'exécution, rechargement): la nouvelle table est
+ * construite à part puis publiée par compareAndSet; en cas de concurrence entre
+ * deux écritures, la perdante recommence à partir de la table gagnante.
+ *
+ * Les attributs historiques du contexte (METHOD_MAPPINGS_KEY, URL_MAPPINGS_KEY,
+ * ROUTER_KEY) sont mis à jour après chaque publication, pour compatibilité seulement.
+ *
+ * Après un retrait, les invokers ({@link ControllerInvoker}) et fournisseurs
+ * ({@link ControllerRegistry}) qui ne servent plus à aucune route sont oubliés: un
+ * contrôleur rechargé ne retient plus son ancien chargeur de classes.
+ */
+public final class RouteRegistry {
+    public static final String ROUTE_REGISTRY_KEY = "routeRegistry";
+
+    private static final Object INSTALL_LOCK = new Object();
+
+    private final ServletContext ctx;
+    private final AtomicReference<RouteTable> current;
+
+    private RouteRegistry(ServletContext ctx, RouteTable table) {
+        this.ctx = ctx;
+        this.current = new AtomicReference<>(table);
+    }
+
+    /**
+     * Registre du contexte, créé avec ces routes s'il n'existe pas encore.
+     */
+    public static RouteRegistry install(ServletContext ctx, Map<String, MethodMapping> mappings) {
+        synchronized (INSTALL_LOCK) {  // une fois par contexte, jamais sur le chemin des requêtes
+            RouteRegistry existing = get(ctx);
+            if (existing != null) {
+                return existing;
+            }
+            RouteRegistry registry = new RouteRegistry(ctx, RouteTable.of(mappings));
+            registry.mirror();
+            ctx.setAttribute(ROUTE_REGISTRY_KEY, registry);
+            return registry;
+        }
+    }
+
+    public static RouteRegistry get(ServletContext ctx) {
+        Object attr = ctx != null ? ctx.getAttribute(ROUTE_REGISTRY_KEY) : null;
+        return attr instanceof RouteRegistry ? (RouteRegistry) attr : null;
+    }
+
+    public RouteTable snapshot() {
+        return current.get();
+    }
+
+    public RouteTable add(MethodMapping mapping) {
+        return update(Collections.singletonList(mapping), null);
+    }
+
+    /**
+     * Ajoute (ou remplace) toutes les routes d'un contrôleur.
+     */
+    public RouteTable addController(Class<?> controllerClass) {
+        return replaceController(controllerClass.getName(), mappingsOf(controllerClass));
+    }
+
+    public RouteTable remove(String httpMethod, String urlPattern) {
+        String key = httpMethod.toUpperCase() + ":" + urlPattern;
+        return update(null, mapping -> RouteTable.key(mapping).equals(key));
+    }
+
+    public RouteTable removeController(String className) {
+        return update(null, mapping -> mapping.getControllerClass().getName().equals(className));
+    }
+
+    /**
+     * Remplace les routes d'un contrôleur (rechargement): anciennes routes retirées,
+     * nouvelles ajoutées, en une seule publication.
+     */
+    public RouteTable replaceController(String className, Collection<MethodMapping> mappings) {
+        return update(mappings, mapping -> mapping.getControllerClass().getName().equals(className));
+    }
+
+    static List<MethodMapping> mappingsOf(Class<?> controllerClass) {
+        Map<String, MethodMapping> found = new HashMap<>();
+        ClasspathScanner.addMappings(controllerClass, found);
+        return new ArrayList<>(found.values());
+    }
+
+    private RouteTable update(Collection<MethodMapping> added, Predicate<MethodMapping> removed) {
+        if (added != null) {
+            prepareControllers(added);
+        }
+        RouteTable previous;
+        RouteTable next;
+        do {
+            previous = current.get();
+            next = previous.with(added, removed);
+        } while (!current.compareAndSet(previous, next));
+        mirror();
+        if (removed != null) {
+            release(previous);
+        }
+        RouteTable published = next;
+        FrameworkLog.info(() -> "🔁 [RouteRegistry] Table des routes v" + published.getVersion()
+                + ": " + published.size() + " routes");
+        return next;
+    }
+
+    /**
+     * Fournisseurs d'instances pris dans le registre des contrôleurs du contexte.
+     */
+    private void prepareControllers(Collection<MethodMapping> mappings) {
+        Object attr = ctx != null ? ctx.getAttribute(ControllerRegistry.CONTROLLER_REGISTRY_KEY) : null;
+        if (!(attr instanceof ControllerRegistry)) {
+            return;
+        }
+        ControllerRegistry controllers = (ControllerRegistry) attr;
+        for (MethodMapping mapping : mappings) {
+            try {
+                mapping.setControllerProvider(controllers.provider(mapping.getControllerClass()));
+            } catch (RuntimeException e) {
+                FrameworkLog.error("❌ [RouteRegistry] Impossible de préparer " + mapping.getControllerClass().getName()
+                        + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Oublie les invokers et fournisseurs des routes de previous absentes de la table
+     * courante (lue maintenant: une écriture concurrente a pu rajouter une route).
+     */
+    private void release(RouteTable previous) {
+        Set<Method> methods = new HashSet<>();
+        Set<Class<?>> classes = new HashSet<>();
+        for (MethodMapping mapping : current.get().getMappings().values()) {
+            methods.add(mapping.getMethod());
+            classes.add(mapping.getControllerClass());
+        }
+        Object attr = ctx != null ? ctx.getAttribute(ControllerRegistry.CONTROLLER_REGISTRY_KEY) : null;
+        ControllerRegistry controllers = attr instanceof ControllerRegistry ? (ControllerRegistry) attr : null;
+        for (MethodMapping mapping : previous.getMappings().values()) {
+            if (!methods.contains(mapping.getMethod())) {
+                ControllerInvoker.forget(mapping.getMethod());
+            }
+            if (controllers != null && !classes.contains(mapping.getControllerClass())) {
+                controllers.remove(mapping.getControllerClass());
+            }
+        }
+    }
+
+    /**
+     * Recopie la table courante (et non celle de l'appelant): deux écritures concurrentes
+     * ne peuvent pas laisser dans le contexte une table plus ancienne que la table publiée.
+     */
+    private synchronized void mirror() {
+        if (ctx == null) {
+            return;
+        }
+        RouteTable table = current.get();
+        ctx.setAttribute(StartupListener.METHOD_MAPPINGS_KEY, table.getMappings());
+        ctx.setAttribute(StartupListener.ROUTER_KEY, table.getRouter());
+        if (!table.getMappings().isEmpty()) {
+            ctx.setAttribute(StartupListener.URL_MAPPINGS_KEY, table.getMappings());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.outils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Instantané immuable des routes: mappings (clé METHOD:URL) et routeur compilé, avec
+ * un numéro de version. Une modification produit une nouvelle table (voir
+ * {@link RouteRegistry}); une requête garde la table lue au début de son traitement.
+ */
+public final class RouteTable {
+    static final RouteTable EMPTY = new RouteTable(0, Collections.emptyMap());
+
+    private final long version;
+    private final Map<String, MethodMapping> mappings;
+    private final Router router;
+    /** Caches @Cached des routes de la table, par pattern d'URL (cibles de @CacheEvict). */
+    private final Map<String, ResponseCache> responseCaches;
+
+    private RouteTable(long version, Map<String, MethodMapping> mappings) {
+        this.version = version;
+        this.mappings = Collections.unmodifiableMap(mappings);
+        this.router = Router.compile(mappings.values());
+        Map<String, ResponseCache> caches = new HashMap<>();
+        for (MethodMapping mapping : mappings.values()) {
+            if (mapping.getResponseCache() != null) {
+                caches.put(mapping.getUrlPattern(), mapping.getResponseCache());
+            }
+        }
+        this.responseCaches = caches;
+    }
+
+    static RouteTable of(Map<String, MethodMapping> mappings) {
+        return new RouteTable(1, mappings != null ? new HashMap<>(mappings) : new HashMap<>());
+    }
+
+    /**
+     * Nouvelle version: routes retirées selon removed, puis routes ajoutées (une route
+     * existante de même clé est remplacée).
+     */
+    RouteTable with(Collection<MethodMapping> added, Predicate<MethodMapping> removed) {
+        Map<String, MethodMapping> next = new HashMap<>(mappings);
+        if (removed != null) {
+            next.values().removeIf(removed);
+        }
+        if (added != null) {
+            for (MethodMapping mapping : added) {
+                next.put(key(mapping), mapping);
+            }
+        }
+        return new RouteTable(version + 1, next);
+    }
+
+    static String key(MethodMapping mapping) {
+        return mapping.getHttpMethod() + ":" + mapping.getUrlPattern();
+    }
+
+    /**
+     * Cache @Cached de la route GET de ce pattern, ou null.
+     */
+    ResponseCache getResponseCache(String urlPattern) {
+        return responseCaches.get(urlPattern);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Map<String, MethodMapping> getMappings() {
+        return mappings;
+    }
+
+    public Router getRouter() {
+        return router;
+    }
+
+    public int size() {
+        return router.size();
+    }
+}
@@ -0,0 +1,256 @@
+package org.example.outils;
+
+import org.example.annotation.Controller;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rechargement des contrôleurs en développement (context-param {@code routes.watch=true}).
+ *
+ * Surveille le répertoire des classes compilées (WEB-INF/classes ou {@code routes.watchDir}).
+ * Après une rafale de modifications (attente de {@code routes.watchDelayMs}, 300 ms par
+ * défaut, sans nouvel événement), chaque .class modifié est lu avec {@link ClassFileReader}:
+ * un contrôleur est redéfini dans un chargeur neuf et ses routes remplacent les anciennes
+ * en une seule publication ({@link RouteRegistry#replaceController}); un .class supprimé
+ * retire les routes de son contrôleur. Les requêtes en cours gardent l'ancienne table.
+ *
+ * Seules les classes modifiées (et leurs classes internes) sont redéfinies: les autres
+ * classes, dont le framework et les annotations, viennent du chargeur de l'application.
+ */
+final class RouteWatcher implements Runnable {
+    static final String WATCH_PARAM = "routes.watch";
+    static final String DIR_PARAM = "routes.watchDir";
+    static final String DELAY_PARAM = "routes.watchDelayMs";
+
+    private static final byte[] CONTROLLER_DESCRIPTOR = ClassFileReader.descriptor(Controller.class);
+
+    private final RouteRegistry registry;
+    private final Path root;
+    private final ClassLoader parent;
+    private final long delayMs;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    /** Fichier .class -> contrôleur qu'il définissait (pour les suppressions). */
+    private final Map<Path, String> controllers = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    private RouteWatcher(RouteRegistry registry, Path root, ClassLoader parent, long delayMs) throws IOException {
+        this.registry = registry;
+        this.root = root;
+        this.parent = parent;
+        this.delayMs = delayMs;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = new Thread(this, "framework-route-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Démarre la surveillance de root, ou retourne null si le répertoire n'existe pas.
+     */
+    static RouteWatcher start(RouteRegistry registry, Path root, long delayMs) {
+        if (root == null || !Files.isDirectory(root)) {
+            FrameworkLog.warn("⚠️ [RouteWatcher] Répertoire à surveiller introuvable: " + root);
+            return null;
+        }
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+        if (parent == null) {
+            parent = RouteWatcher.class.getClassLoader();
+        }
+        try {
+            RouteWatcher watcher = new RouteWatcher(registry, root, parent, delayMs);
+            watcher.registerAll(root);
+            watcher.thread.start();
+            FrameworkLog.info("👀 [RouteWatcher] Rechargement des contrôleurs actif: " + root);
+            return watcher;
+        } catch (IOException e) {
+            FrameworkLog.error("❌ [RouteWatcher] Surveillance impossible: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    void stop() {
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watchService.take(), changed);
+                // attendre la fin de la rafale (un build réécrit souvent plusieurs fichiers)
+                WatchKey key;
+                while ((key = watchService.poll(delayMs, TimeUnit.MILLISECONDS)) != null) {
+                    collect(key, changed);
+                }
+                reload(changed);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // arrêt du contexte
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path dir = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    registerAll(path);
+                } catch (IOException e) {
+                    FrameworkLog.warn("⚠️ [RouteWatcher] Répertoire non surveillé: " + path);
+                }
+            } else if (path.getFileName().toString().endsWith(".class")) {
+                changed.add(path);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    private void reload(Set<Path> changed) {
+        Map<String, byte[]> classes = new HashMap<>();
+        Set<String> reloaded = new LinkedHashSet<>();
+        for (Path path : changed) {
+            if (!Files.exists(path)) {
+                String known = controllers.remove(path);
+                String removed = known != null ? known : className(path);  // contrôleur présent au démarrage
+                if (registry.snapshot().getMappings().values().stream()
+                        .anyMatch(mapping -> mapping.getControllerClass().getName().equals(removed))) {
+                    FrameworkLog.info(() -> "🗑️ [RouteWatcher] Contrôleur supprimé: " + removed);
+                    registry.removeController(removed);
+                }
+                continue;
+            }
+            try {
+                byte[] bytes = Files.readAllBytes(path);
+                String name = ClassFileReader.annotatedClassName(bytes, bytes.length, CONTROLLER_DESCRIPTOR);
+                String className = className(path);
+                classes.put(className, bytes);
+                if (name != null) {
+                    controllers.put(path, name);
+                    reloaded.add(name);
+                } else {
+                    String previous = controllers.remove(path);
+                    if (previous != null) {
+                        registry.removeController(previous);  // @Controller retiré
+                    }
+                }
+            } catch (IOException e) {
+                FrameworkLog.warn("⚠️ [RouteWatcher] Lecture impossible: " + path + " (" + e.getMessage() + ")");
+            }
+        }
+        if (reloaded.isEmpty()) {
+            return;
+        }
+        ReloadingClassLoader loader = new ReloadingClassLoader(root, reloaded, classes, parent);
+        for (String name : reloaded) {
+            try {
+                Class<?> cls = Class.forName(name, true, loader);
+                registry.replaceController(name, RouteRegistry.mappingsOf(cls));
+                FrameworkLog.info(() -> "♻️ [RouteWatcher] Contrôleur rechargé: " + name);
+            } catch (Throwable t) {
+                // classe invalide ou dépendance manquante: l'ancienne version reste en service
+                FrameworkLog.error("❌ [RouteWatcher] Rechargement impossible de " + name + ": " + t.getMessage(), t);
+            }
+        }
+    }
+
+    private String className(Path classFile) {
+        String relative = root.relativize(classFile).toString();
+        return relative.substring(0, relative.length() - ".class".length())
+                .replace(classFile.getFileSystem().getSeparator(), ".");
+    }
+
+    private void registerAll(Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                directories.put(key, dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Chargeur enfant d'abord pour les contrôleurs rechargés et leurs classes internes
+     * (Ctrl$1, Ctrl$Dto...), parent pour tout le reste.
+     */
+    private static final class ReloadingClassLoader extends ClassLoader {
+        private final Path root;
+        private final Set<String> reloaded;
+        private final Map<String, byte[]> classes;
+
+        ReloadingClassLoader(Path root, Set<String> reloaded, Map<String, byte[]> classes, ClassLoader parent) {
+            super(parent);
+            this.root = root;
+            this.reloaded = reloaded;
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!isReloaded(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> cls = findLoadedClass(name);
+                if (cls == null) {
+                    cls = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(cls);
+                }
+                return cls;
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                try {
+                    bytes = Files.readAllBytes(root.resolve(name.replace('.', '/') + ".class"));
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        private boolean isReloaded(String name) {
+            if (reloaded.contains(name)) {
+                return true;
+            }
+            int dollar = name.indexOf('$');
+            return dollar > 0 && reloaded.contains(name.substring(0, dollar));
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.outils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routeur compilé au démarrage : un arbre de segments (trie) par méthode HTTP.
+ *
+ * Chaque niveau de l'arbre correspond à un segment d'URL (séparé par '/').
+ * La recherche descend segment par segment, son coût dépend donc de la longueur
+ * du chemin et non du nombre de routes déclarées.
+ *
+ * Précédence déterministe:
+ *   1) segment statique ("/users/new")
+ *   2) segment paramétré avec préfixe/suffixe ("/files/{name}.json"), le plus spécifique d'abord
+ *   3) segment paramétré simple ("/users/{id}")
+ * Si une branche statique échoue plus loin, la recherche revient en arrière
+ * et essaie les branches paramétrées.
+ *
+ * Les routes entièrement statiques sont aussi indexées par chemin exact
+ * ({@link #findStatic}): une seule recherche dans une table de hachage.
+ */
+public final class Router {
+    private final Map<String, Node> roots;
+    private final Map<String, Map<String, MethodMapping>> statics;
+    private final List<MethodMapping> routes;
+
+    private Router(Map<String, Node> roots, Map<String, Map<String, MethodMapping>> statics,
+                   List<MethodMapping> routes) {
+        this.roots = roots;
+        this.statics = statics;
+        this.routes = routes;
+    }
+
+    /**
+     * Compile les mappings en arbre. Les mappings sont insérés dans l'ordre de leur
+     * clé METHOD:URL pour que le résultat ne dépende pas de l'ordre d'itération de la map.
+     */
+    public static Router compile(Collection<MethodMapping> mappings) {
+        List<MethodMapping> sorted = new ArrayList<>();
+        if (mappings != null) {
+            sorted.addAll(mappings);
+        }
+        sorted.sort(Comparator.comparing(MethodMapping::getHttpMethod)
+                .thenComparing(MethodMapping::getUrlPattern));
+
+        Map<String, Node> roots = new HashMap<>();
+        Map<String, Map<String, MethodMapping>> statics = new HashMap<>();
+        List<MethodMapping> routes = new ArrayList<>();
+        for (MethodMapping mapping : sorted) {
+            Node root = roots.computeIfAbsent(mapping.getHttpMethod(), k -> new Node());
+            if (root.insert(mapping.getPathPattern(), mapping)) {
+                routes.add(mapping);
+                if (isStatic(mapping.getPathPattern())) {
+                    // un segment statique est prioritaire: l'arbre donnerait la même route pour ce chemin
+                    statics.computeIfAbsent(mapping.getHttpMethod(), k -> new HashMap<>())
+                            .put(mapping.getUrlPattern(), mapping);
+                }
+            } else {
+                FrameworkLog.warn("⚠️ [Router] Route ignorée (déjà couverte par un pattern équivalent): " + mapping);
+            }
+        }
+        for (Node root : roots.values()) {
+            root.freeze();
+        }
+        return new Router(roots, statics, Collections.unmodifiableList(routes));
+    }
+
+    private static boolean isStatic(PathPattern pattern) {
+        for (PathPattern.Segment segment : pattern.segments()) {
+            if (segment.isParam()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cherche le mapping pour une méthode HTTP et un chemin.
+     * @return le mapping trouvé ou null
+     */
+    public MethodMapping find(String httpMethod, String path) {
+        RouteMatch match = new RouteMatch();
+        match.reset(path);
+        return find(httpMethod, path, match);
+    }
+
+    /**
+     * Cherche le mapping et enregistre les positions des paramètres d'URL dans match,
+     * dans l'ordre des paramètres du pattern trouvé.
+     * @return le mapping trouvé ou null
+     */
+    public MethodMapping find(String httpMethod, String path, RouteMatch match) {
+        if (httpMethod == null || path == null) {
+            return null;
+        }
+        Node root = roots.get(httpMethod);
+        if (root == null) {
+            return null;
+        }
+        return root.find(path, 0, match);
+    }
+
+    /**
+     * Route sans paramètre dont le pattern est exactement ce chemin.
+     * @return le mapping trouvé ou null (route dynamique ou absente: voir {@link #find})
+     */
+    public MethodMapping findStatic(String httpMethod, String path) {
+        Map<String, MethodMapping> byPath = httpMethod != null ? statics.get(httpMethod) : null;
+        return byPath != null && path != null ? byPath.get(path) : null;
+    }
+
+    public List<MethodMapping> getRoutes() {
+        return routes;
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    public boolean isEmpty() {
+        return routes.isEmpty();
+    }
+
+    /**
+     * Nœud de l'arbre: enfants statiques, enfants paramétrés et éventuellement une route terminale.
+     */
+    private static final class Node {
+        private final Map<String, Node> staticBuilder = new HashMap<>();
+        private final List<ParamChild> paramBuilder = new ArrayList<>();
+        private SegmentTable statics = SegmentTable.EMPTY;
+        private ParamChild[] params = new ParamChild[0];
+        private MethodMapping handler;
+
+        boolean insert(PathPattern pattern, MethodMapping mapping) {
+            Node node = this;
+            for (PathPattern.Segment segment : pattern.segments()) {
+                node = node.child(segment);
+            }
+            if (node.handler != null) {
+                return false;
+            }
+            node.handler = mapping;
+            return true;
+        }
+
+        private Node child(PathPattern.Segment segment) {
+            if (!segment.isParam()) {
+                return staticBuilder.computeIfAbsent(segment.literal, k -> new Node());
+            }
+            for (ParamChild p : paramBuilder) {
+                if (p.prefix.equals(segment.prefix) && p.suffix.equals(segment.suffix)) {
+                    return p.node;
+                }
+            }
+            ParamChild p = new ParamChild(segment.prefix, segment.suffix, new Node());
+            paramBuilder.add(p);
+            return p.node;
+        }
+
+        void freeze() {
+            statics = SegmentTable.of(staticBuilder);
+            paramBuilder.sort((a, b) -> Integer.compare(
+                    b.prefix.length() + b.suffix.length(), a.prefix.length() + a.suffix.length()));
+            params = paramBuilder.toArray(new ParamChild[0]);
+            for (Node n : staticBuilder.values()) n.freeze();
+            for (ParamChild p : params) p.node.freeze();
+        }
+
+        /**
+         * Recherche à partir de la position start (début d'un segment) dans path.
+         * Les positions des paramètres sont empilées dans match et retirées en cas de retour arrière.
+         */
+        MethodMapping find(String path, int start, RouteMatch match) {
+            int len = path.length();
+            int end = path.indexOf('/', start);
+            if (end < 0) end = len;
+            boolean last = end == len;
+
+            // 1) segment statique
+            Node next = statics.get(path, start, end);
+            if (next != null) {
+                MethodMapping found = last ? next.handler : next.find(path, end + 1, match);
+                if (found != null) return found;
+            }
+
+            // 2) segments paramétrés (au moins un caractère pour la valeur, comme [^/]+)
+            int depth = match.size();
+            for (ParamChild p : params) {
+                if (end - start <= p.prefix.length() + p.suffix.length()) continue;
+                if (!path.startsWith(p.prefix, start)) continue;
+                if (!path.startsWith(p.suffix, end - p.suffix.length())) continue;
+                match.add(start + p.prefix.length(), end - p.suffix.length());
+                MethodMapping found = last ? p.node.handler : p.node.find(path, end + 1, match);
+                if (found != null) return found;
+                match.truncate(depth);
+            }
+            return null;
+        }
+    }
+
+    private static final class ParamChild {
+        final String prefix;
+        final String suffix;
+        final Node node;
+
+        ParamChild(String prefix, String suffix, Node node) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Table de hachage à adressage ouvert interrogée directement sur une portion
+     * du chemin (start/end) afin de ne pas créer de sous-chaîne par segment.
+     */
+    private static final class SegmentTable {
+        static final SegmentTable EMPTY = new SegmentTable(new String[1], new Node[1]);
+
+        private final String[] keys;
+        private final Node[] nodes;
+        private final int mask;
+
+        private SegmentTable(String[] keys, Node[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+            this.mask = keys.length - 1;
+        }
+
+        static SegmentTable of(Map<String, Node> entries) {
+            if (entries.isEmpty()) return EMPTY;
+            int capacity = Integer.highestOneBit(entries.size() * 2 - 1) << 1;
+            String[] keys = new String[capacity];
+            Node[] nodes = new Node[capacity];
+            for (Map.Entry<String, Node> e : entries.entrySet()) {
+                int i = e.getKey().hashCode() & (capacity - 1);
+                while (keys[i] != null) i = (i + 1) & (capacity - 1);
+                keys[i] = e.getKey();
+                nodes[i] = e.getValue();
+            }
+            return new SegmentTable(keys, nodes);
+        }
+
+        Node get(String path, int start, int end) {
+            // Même calcul que String.hashCode() mais sur la portion [start, end)
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + path.charAt(i);
+            }
+            int length = end - start;
+            int i = h & mask;
+            String key;
+            while ((key = keys[i]) != null) {
+                if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+                    return nodes[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.outils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.annotation.GetMapping;
+import org.example.annotation.JSON;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Regroupement des requêtes GET identiques simultanées (@GetMapping(coalesce = true), @JSON).
+ *
+ * La première requête d'une clé (chemin + query string + codage négocié) devient le
+ * "leader": elle invoque le contrôleur et sa réponse sérialisée est recopiée
+ * ({@link ResponseCache.Recorder}). Les suivantes attendent ce résultat et renvoient les
+ * mêmes octets. Table des vols en cours: ConcurrentHashMap (lecture sans verrou,
+ * putIfAbsent pour désigner le leader).
+ *
+ *   - erreur du leader: la même erreur JSON (même code) pour toutes les requêtes en attente
+ *   - délai coalesce.timeoutMs dépassé (défaut 10000): 504 pour toutes les requêtes en
+ *     attente, la clé est libérée pour un nouveau leader
+ *   - réponse non partageable (304, trop grosse, en flux) ou non écrite (client du leader
+ *     déconnecté): chaque requête en attente invoque alors le contrôleur elle-même
+ */
+final class SingleFlight {
+    static final String FLIGHT_KEY = "org.example.singleFlight";
+
+    /** Taille maximale d'une réponse partagée. */
+    private static final int MAX_SHARED_BYTES = 4 * 1024 * 1024;
+
+    private final Map<String, CompletableFuture<ResponseCache.Entry>> inflight = new ConcurrentHashMap<>();
+
+    private final LongAdder leaders = new LongAdder();
+    private final LongAdder followers = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    private SingleFlight(String name) {
+        String prefix = "singleFlight." + name + ".";
+        FrameworkMetrics.register(prefix + "leaders", leaders::sum);
+        FrameworkMetrics.register(prefix + "followers", followers::sum);
+        FrameworkMetrics.register(prefix + "timeouts", timeouts::sum);
+        FrameworkMetrics.register(prefix + "inflight", () -> inflight.size());
+    }
+
+    /**
+     * Regroupement de la route si @GetMapping(coalesce = true), sinon null.
+     */
+    static SingleFlight of(Method method, String urlPattern, String httpMethod) {
+        GetMapping mapping = method.getAnnotation(GetMapping.class);
+        if (mapping == null || !mapping.coalesce()) {
+            return null;
+        }
+        if (!"GET".equals(httpMethod) || !method.isAnnotationPresent(JSON.class)) {
+            FrameworkLog.warn("⚠️ [SingleFlight] coalesce ignoré sur " + method.getDeclaringClass().getSimpleName()
+                    + "#" + method.getName() + ": réservé aux méthodes GET @JSON");
+            return null;
+        }
+        return new SingleFlight(httpMethod + " " + urlPattern);
+    }
+
+    /**
+     * Leader: enregistre le vol et retourne null (la requête invoque le contrôleur).
+     * Sinon attend le leader et retourne sa réponse ({@link ResponseCache.Entry} ou
+     * erreur JSON), ou null si elle n'est pas partageable.
+     */
+    Object enter(HttpServletRequest request, String path) {
+        String key = key(request, path);
+        CompletableFuture<ResponseCache.Entry> mine = new CompletableFuture<>();
+        CompletableFuture<ResponseCache.Entry> leader = inflight.putIfAbsent(key, mine);
+        long timeout = FrameworkConfig.get(request.getServletContext()).getInt("coalesce.timeoutMs", 10000);
+        if (leader == null) {
+            leaders.increment();
+            mine.orTimeout(timeout, TimeUnit.MILLISECONDS).whenComplete((entry, error) -> inflight.remove(key, mine));
+            ResponseCache.Recorder recorder = ResponseCache.Recorder.current(request);
+            if (recorder != null) {
+                recorder.setFlight(mine);
+            } else {
+                request.setAttribute(ResponseCache.RECORDER_KEY, ResponseCache.Recorder.forFlight(mine, MAX_SHARED_BYTES));
+            }
+            request.setAttribute(FLIGHT_KEY, mine);
+            return null;
+        }
+
+        followers.increment();
+        FrameworkLog.debug(() -> "🔗 [SingleFlight] En attente de la requête en cours: " + key);
+        try {
+            // attente bornée aussi côté suiveur, même si le délai du leader n'est pas appliqué
+            return leader.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return JsonResponse.error("Délai dépassé pour " + path, 504);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                timeouts.increment();
+                return JsonResponse.error("Délai dépassé pour " + path, 504);
+            }
+            int status = cause instanceof HttpStatusException ? ((HttpStatusException) cause).getStatus() : 500;
+            return JsonResponse.error(cause.getMessage(), status);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return JsonResponse.error("Requête interrompue", 503);
+        }
+    }
+
+    /**
+     * Échec de l'invocation du leader: transmis à toutes les requêtes en attente.
+     */
+    static void fail(HttpServletRequest request, Exception error) {
+        Object flight = request != null ? request.getAttribute(FLIGHT_KEY) : null;
+        if (flight instanceof CompletableFuture) {
+            ((CompletableFuture<?>) flight).completeExceptionally(error);
+        }
+    }
+
+    private static String key(HttpServletRequest request, String path) {
+        String query = request.getQueryString();
+        String encoding = ResponseBody.negotiate(request.getHeader("Accept-Encoding"));
+        StringBuilder key = new StringBuilder(path.length() + 32).append(path);
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (encoding != null) {
+            key.append('#').append(encoding);
+        }
+        return key.toString();
+    }
+}
@@ -3,61 +3,95 @@ package org.example.outils;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.WebListener;
+import java.nio.file.Paths;
 import java.util.Map;
 
 @WebListener
 public class StartupListener implements ServletContextListener {
     public static final String URL_MAPPINGS_KEY = "urlMappings";
     public static final String METHOD_MAPPINGS_KEY = "methodMappings";  // Sprint 7
+    public static final String ROUTER_KEY = "router";  // Routeur compilé (arbre de segments)
+    private static final String ROUTE_WATCHER_KEY = "routeWatcher";
 
     @Override
     public void contextInitialized(ServletContextEvent sce) {
-        System.out.println("\n🚀 [StartupListener] Démarrage de l'application...");
+        // context-param log.level appliqué avant les messages de démarrage
+        FrameworkConfig.get(sce.getServletContext());
+        FrameworkLog.info("\n🚀 [StartupListener] Démarrage de l'application...");
         try {
-            // Scanner org.example.test pour trouver les contrôleurs
-            System.out.println("📥 [StartupListener] Scan du package org.example.test...");
-            
-            // Sprint 7: Scanner les méthodes HTTP
-            Map<String, MethodMapping> methodMappings = ClasspathScanner.scanMethodMappings("org.example.test");
-            
-            if (methodMappings == null || methodMappings.isEmpty()) {
-                System.out.println("⚠️ [StartupListener] Aucune méthode HTTP trouvée dans org.example.test");
-                // Essayer un scan complet
-                System.out.println("🔍 [StartupListener] Tentative de scan complet...");
-                methodMappings = ClasspathScanner.scanMethodMappings("");
+            // Index généré à la compilation (route-index-processor): pas de parcours du classpath
+            Map<String, MethodMapping> methodMappings = RouteIndex.load();
+            if (methodMappings != null) {
+                FrameworkLog.info("📇 [StartupListener] Routes chargées depuis " + RouteIndex.RESOURCE);
+            } else {
+                // Scanner org.example.test pour trouver les contrôleurs
+                FrameworkLog.info("📥 [StartupListener] Scan du package org.example.test...");
+
+                // Sprint 7: Scanner les méthodes HTTP
+                methodMappings = ClasspathScanner.scanMethodMappings("org.example.test");
+
+                if (methodMappings == null || methodMappings.isEmpty()) {
+                    FrameworkLog.warn("⚠️ [StartupListener] Aucune méthode HTTP trouvée dans org.example.test");
+                    // Essayer un scan complet
+                    FrameworkLog.info("🔍 [StartupListener] Tentative de scan complet...");
+                    methodMappings = ClasspathScanner.scanMethodMappings("");
+                }
             }
             
             // Stocker la map dans le contexte servlet
-            System.out.println("🔵 [StartupListener] Avant stockage: methodMappings.size() = " + 
+            FrameworkLog.info("🔵 [StartupListener] Avant stockage: methodMappings.size() = " + 
                 (methodMappings != null ? methodMappings.size() : 0));
             sce.getServletContext().setAttribute(METHOD_MAPPINGS_KEY, methodMappings);
-            System.out.println("✅ [StartupListener] Après stockage (METHOD_MAPPINGS_KEY): " + 
+            FrameworkLog.info("✅ [StartupListener] Après stockage (METHOD_MAPPINGS_KEY): " + 
                 (methodMappings != null ? methodMappings.size() : 0));
             
-            // SPRINT 9 FIX: Stocker aussi les méthodes dans URL_MAPPINGS_KEY pour compatibilité
-            // Convertir les MethodMappings en MethodInfo pour l'ancienne API
-            if (methodMappings != null && !methodMappings.isEmpty()) {
-                sce.getServletContext().setAttribute(URL_MAPPINGS_KEY, methodMappings);
-                System.out.println("✅ [StartupListener] Stocké MethodMappings (URL_MAPPINGS_KEY): " + methodMappings.size());
+            // Préparer les contrôleurs (singletons créés maintenant, pools, constructeurs résolus)
+            ControllerRegistry registry = ControllerRegistry.build(methodMappings != null ? methodMappings.values() : null);
+            sce.getServletContext().setAttribute(ControllerRegistry.CONTROLLER_REGISTRY_KEY, registry);
+            FrameworkLog.info("🏭 [StartupListener] Contrôleurs préparés: " + registry.getProviders());
+
+            // Table des routes publiée atomiquement: routeur compilé une seule fois, remplacé
+            // en bloc lors d'un ajout / retrait à l'exécution (RouteRegistry). Les attributs
+            // ROUTER_KEY et URL_MAPPINGS_KEY (SPRINT 9, compatibilité) sont écrits par le registre
+            RouteRegistry routes = RouteRegistry.install(sce.getServletContext(), methodMappings);
+            FrameworkLog.info("🧭 [StartupListener] Routeur compilé: " + routes.snapshot().size() + " routes");
+
+            // Développement: rechargement des contrôleurs recompilés
+            FrameworkConfig config = FrameworkConfig.get(sce.getServletContext());
+            if (config.getBoolean(RouteWatcher.WATCH_PARAM, false)) {
+                String dir = config.get(RouteWatcher.DIR_PARAM, null);
+                if (dir == null) {
+                    dir = sce.getServletContext().getRealPath("/WEB-INF/classes");
+                }
+                RouteWatcher watcher = RouteWatcher.start(routes, dir != null ? Paths.get(dir) : null,
+                        config.getLong(RouteWatcher.DELAY_PARAM, 300));
+                if (watcher != null) {
+                    sce.getServletContext().setAttribute(ROUTE_WATCHER_KEY, watcher);
+                }
             }
             
             // Log détaillé des URLs trouvées
-            System.out.println("\n📋 [StartupListener] Routes mappées (" + 
+            FrameworkLog.info("\n📋 [StartupListener] Routes mappées (" + 
                 (methodMappings != null ? methodMappings.size() : 0) + " routes):");
             if (methodMappings != null) {
                 methodMappings.forEach((key, mapping) -> 
-                    System.out.println("   ├─ " + mapping));
+                    FrameworkLog.info("   ├─ " + mapping));
             }
-            System.out.println("   └─ Fin des routes\n");
+            FrameworkLog.info("   └─ Fin des routes\n");
                 
         } catch (Exception e) {
-            System.err.println("❌ [StartupListener] Erreur lors du scan: " + e.getMessage());
-            e.printStackTrace();
+            FrameworkLog.error("❌ [StartupListener] Erreur lors du scan: " + e.getMessage(), e);
         }
     }
 
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
-        System.out.println("❌ Application arrêtée");
+        Object watcher = sce.getServletContext().getAttribute(ROUTE_WATCHER_KEY);
+        if (watcher instanceof RouteWatcher) {
+            ((RouteWatcher) watcher).stop();
+        }
+        BlockingExecutor.shutdown();
+        FrameworkLog.info("❌ Application arrêtée");
+        FrameworkLog.shutdown();
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package org.example.outils;
+
+/**
+ * Conversion d'une valeur de paramètre (String) vers le type d'un argument.
+ *
+ * Le convertisseur est choisi une fois par argument, au scan, via le
+ * {@link ConverterRegistry}. Pour ajouter un type, enregistrer un convertisseur
+ * dans le registre (voir {@link ConverterProvider}).
+ */
+@FunctionalInterface
+public interface TypeConverter<T> {
+
+    /**
+     * @return la valeur convertie, ou null si la valeur n'est pas reconnue
+     */
+    T convert(String value) throws Exception;
+}
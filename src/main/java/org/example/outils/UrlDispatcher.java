@@ -2,146 +2,322 @@ package org.example.outils;
 
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.http.HttpServletRequest;
-import org.example.annotation.RequestParam;
 import org.example.annotation.JSON;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 
 public class UrlDispatcher {
+    /** Attribut de requête: place @ConcurrencyLimit à rendre une fois la réponse écrite. */
+    public static final String RELEASE_KEY = "org.example.concurrencyLimit.release";
 
     // Sprint 7: Nouvelle entrée pour supporter les méthodes HTTP
     @SuppressWarnings("unchecked")
     public static Object handleRequestWithMethod(String url, ServletContext ctx, HttpServletRequest request, String httpMethod) {
-        System.out.println("\n🔍 [UrlDispatcher] Recherche " + httpMethod + " '" + url + "'");
+        FrameworkLog.debug(() -> "\n🔍 [UrlDispatcher] Recherche " + httpMethod + " '" + url + "'");
         
         if (ctx == null) {
-            System.out.println("⚠️ [UrlDispatcher] ServletContext est null!");
+            FrameworkLog.debug("⚠️ [UrlDispatcher] ServletContext est null!");
             return "Aucune correspondance trouvée pour " + httpMethod + " " + url;
         }
 
-        // Sprint 7: Chercher dans les MethodMappings
-        Object attr = ctx.getAttribute(StartupListener.METHOD_MAPPINGS_KEY);
-        if (attr instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, MethodMapping> map = (Map<String, MethodMapping>) attr;
-            System.out.println("📦 [UrlDispatcher] MethodMappings trouvées: " + map.size());
-            return handleRequestWithMethodMappings(url, httpMethod, map, request);
+        // Table des routes publiée atomiquement (RouteRegistry): lue une fois par requête,
+        // la requête garde cette table même si une autre est publiée pendant son traitement
+        Object cacheAttr = ctx.getAttribute(RouteCache.ROUTE_CACHE_KEY);
+        RouteCache routeCache = cacheAttr instanceof RouteCache ? (RouteCache) cacheAttr : null;
+        RouteRegistry registry = RouteRegistry.get(ctx);
+        if (registry == null) {
+            // Sprint 7: MethodMappings enregistrés sans passer par le StartupListener
+            Object attr = ctx.getAttribute(StartupListener.METHOD_MAPPINGS_KEY);
+            if (attr instanceof Map) {
+                Map<String, MethodMapping> map = (Map<String, MethodMapping>) attr;
+                FrameworkLog.debug(() -> "📦 [UrlDispatcher] MethodMappings trouvées: " + map.size());
+                registry = RouteRegistry.install(ctx, map);
+            }
+        }
+        if (registry != null) {
+            return handleRequestWithRouter(url, httpMethod, registry.snapshot(), routeCache, request);
         }
 
         // Fallback sur ancien système si pas de MethodMappings
-        System.out.println("⚠️ [UrlDispatcher] Pas de MethodMappings, essai du système antérieur...");
+        FrameworkLog.debug("⚠️ [UrlDispatcher] Pas de MethodMappings, essai du système antérieur...");
         return handleRequest(url, ctx, request);
     }
 
-    // Résolution avec MethodMapping (Sprint 7)
-    private static Object handleRequestWithMethodMappings(String url, String httpMethod, 
-                                                           Map<String, MethodMapping> methodMappings, 
-                                                           HttpServletRequest request) {
-        if (methodMappings == null || methodMappings.isEmpty()) {
-            System.out.println("⚠️ [UrlDispatcher] Aucun mapping disponible");
+    // Résolution avec le routeur compilé (Sprint 7: MethodMapping)
+    private static Object handleRequestWithRouter(String url, String httpMethod, RouteTable table,
+                                                  RouteCache routeCache, HttpServletRequest request) {
+        Router router = table.getRouter();
+        if (router.isEmpty()) {
+            FrameworkLog.debug("⚠️ [UrlDispatcher] Aucun mapping disponible");
             ModelView mv = new ModelView();
             mv.addObject("error", "Aucune correspondance trouvée pour " + httpMethod + " " + url);
             return mv;
         }
 
-        MethodMapping mapping = null;
-        List<String> paramValues = new ArrayList<>();
-
-        // Chercher un mapping correspondant par méthode HTTP et URL
-        for (Map.Entry<String, MethodMapping> entry : methodMappings.entrySet()) {
-            MethodMapping m = entry.getValue();
-            if (m.matches(url, httpMethod)) {
-                mapping = m;
-                paramValues = m.extractParameters(url);
-                System.out.println("✅ [UrlDispatcher] Trouvé: " + httpMethod + " " + m.getUrlPattern());
-                break;
-            }
-        }
+        // Les positions des paramètres d'URL sont enregistrées dans le RouteMatch du thread.
+        RouteMatch match = RouteMatch.current(url);
+        MethodMapping mapping = resolve(url, httpMethod, table, routeCache, match);
 
         if (mapping == null) {
-            System.out.println("⚠️ [UrlDispatcher] Aucun mapping pour " + httpMethod + " " + url);
+            FrameworkLog.debug(() -> "⚠️ [UrlDispatcher] Aucun mapping pour " + httpMethod + " " + url);
             ModelView mv = new ModelView();
             mv.addObject("error", "Aucune correspondance trouvée pour " + httpMethod + " " + url);
             return mv;
         }
+        FrameworkLog.debug(() -> "✅ [UrlDispatcher] Trouvé: " + httpMethod + " " + mapping.getUrlPattern());
+        if (request != null) {
+            request.setAttribute(RouteOptions.REQUEST_KEY, mapping.getOptions());
+        }
 
-        // Invoquer la méthode
+        // Débit par client (@RateLimit): 429 avant tout autre traitement, même une réponse en cache
+        RateLimiter rateLimiter = mapping.getRateLimiter();
+        if (rateLimiter != null && request != null) {
+            JsonResponse limited = rateLimiter.check(request, match);
+            if (limited != null) {
+                return limited;
+            }
+        }
+
+        // Réponse déjà sérialisée en cache (@Cached): ni invocation ni sérialisation
+        ResponseCache responseCache = mapping.getResponseCache();
+        if (responseCache != null && request != null && ResponseCache.isCacheable(httpMethod)) {
+            String key = responseCache.key(request, url);
+            ResponseCache.Entry hit = responseCache.get(key);
+            if (hit != null) {
+                FrameworkLog.debug(() -> "⚡ [UrlDispatcher] Réponse en cache: " + key);
+                return hit;
+            }
+            request.setAttribute(ResponseCache.RECORDER_KEY, responseCache.recorder(key));
+        }
+
+        // Cloison de la route (@ConcurrencyLimit): au-delà de la limite, 503 immédiat sans file d'attente
+        ConcurrencyLimiter limiter = mapping.getLimiter();
+        if (limiter == null) {
+            return invokeRoute(url, httpMethod, mapping, match, request, table);
+        }
+        long admitted = limiter.tryAcquire();
+        if (admitted < 0) {
+            FrameworkLog.debug(() -> "🚦 [UrlDispatcher] Limite de concurrence atteinte: " + mapping.getUrlPattern());
+            return limiter.reject();
+        }
+        boolean deferred = false;
         try {
-            Class<?> controllerClass = mapping.getControllerClass();
-            Method method = mapping.getMethod();
-            Object instance = controllerClass.getDeclaredConstructor().newInstance();
+            Object result = invokeRoute(url, httpMethod, mapping, match, request, table);
+            if (request != null) {
+                // la sérialisation (et la lecture d'un Stream / Iterator) reste dans la cloison:
+                // la place est rendue par responseWritten, après l'écriture de la réponse
+                request.setAttribute(RELEASE_KEY, limiter.releaser(admitted));
+                deferred = true;
+            }
+            return result;
+        } finally {
+            if (!deferred) {
+                limiter.release(admitted);
+            }
+        }
+    }
 
-            Object[] args = buildArguments(method, paramValues, request, mapping);
-            Object result = args.length == 0 ? method.invoke(instance) : method.invoke(instance, args);
+    /**
+     * Fin de l'écriture de la réponse (FrontServlet / FrontFilter, ou {@link AsyncResult}
+     * pour une réponse asynchrone): rend la place @ConcurrencyLimit de la requête.
+     */
+    public static void responseWritten(HttpServletRequest request) {
+        Object release = request != null ? request.getAttribute(RELEASE_KEY) : null;
+        if (release instanceof Runnable) {
+            request.removeAttribute(RELEASE_KEY);
+            ((Runnable) release).run();
+        }
+    }
 
-            System.out.println("✅ [UrlDispatcher] Résultat: " + result);
-            // Sprint 9: si annoté @JSON, retourner réponse JSON selon norme
-            if (method.isAnnotationPresent(JSON.class)) {
-                return buildJsonResponse(result);
+    // Route statique: une recherche dans une table, sans passer par le cache de résolution.
+    // Sinon recherche dans l'arbre: coût proportionnel à la longueur du chemin.
+    // Le cache de résolution (optionnel) évite même cette descente pour les URL dynamiques chaudes
+    private static MethodMapping resolve(String url, String httpMethod, RouteTable table, RouteCache routeCache,
+                                         RouteMatch match) {
+        Router router = table.getRouter();
+        MethodMapping mapping = router.findStatic(httpMethod, url);
+        if (mapping != null) {
+            return mapping;
+        }
+        RouteCache.Entry cached = routeCache != null ? routeCache.get(httpMethod, url, table.getVersion()) : null;
+        if (cached != null) {
+            return cached.restore(match);
+        }
+        mapping = router.find(httpMethod, url, match);
+        if (routeCache != null) {
+            routeCache.put(httpMethod, url, table.getVersion(), mapping, match);
+        }
+        return mapping;
+    }
+
+    private static Object invokeRoute(String url, String httpMethod, MethodMapping mapping, RouteMatch match,
+                                      HttpServletRequest request, RouteTable table) {
+        // Requêtes identiques simultanées (@GetMapping(coalesce = true)): une seule invocation
+        SingleFlight singleFlight = mapping.getSingleFlight();
+        if (singleFlight != null && request != null && "GET".equals(httpMethod)) {
+            Object shared = singleFlight.enter(request, url);
+            if (shared != null) {
+                return shared;
             }
+        }
 
-            if (result instanceof ModelView) {
-                return result;
+        // Invoquer la méthode
+        try {
+            Method method = mapping.getMethod();
+            Object[] args = mapping.bindArguments(request, match);
+
+            // @Blocking (Java 21+): invocation sur un thread virtuel, réponse écrite à la fin (AsyncContext)
+            BlockingExecutor blocking = mapping.getBlocking();
+            if (blocking != null && blocking.isOffloaded() && request != null) {
+                CompletableFuture<Object> offloaded = blocking.submit(request, () -> invoke(mapping, args))
+                        .thenCompose(UrlDispatcher::flatten);
+                return asyncResult(offloaded, mapping, match.detach(), request, table);
             }
 
-            ModelView mv = new ModelView();
-            mv.addObject("result", result);
-            return mv;
+            Object result = invoke(mapping, args);
+            // CompletableFuture / CompletionStage: réponse écrite à la fin du traitement (AsyncContext)
+            if (result instanceof CompletionStage) {
+                return asyncResult((CompletionStage<?>) result, mapping, match.detach(), request, table);
+            }
+            mapping.evictCaches(match, table);
+
+            FrameworkLog.debug(() -> "✅ [UrlDispatcher] Résultat: " + result);
+            return toResponse(method, result);
         } catch (Exception e) {
-            System.err.println("❌ [UrlDispatcher] Erreur lors de l'invocation: " + e.getMessage());
-            e.printStackTrace();
-            // Sprint 9: en cas d'erreur sur méthode annotée @JSON, retourner erreur JSON
+            return errorResponse(mapping, request, e);
+        }
+    }
+
+    // Instance selon le scope du contrôleur (singleton, pool ou nouvelle instance)
+    private static Object invoke(MethodMapping mapping, Object[] args) throws Exception {
+        ControllerProvider provider = mapping.getControllerProvider();
+        Object instance = provider.acquire();
+        try {
+            return mapping.getInvoker().invoke(instance, args);
+        } finally {
+            provider.release(instance);
+        }
+    }
+
+    // Méthode @Blocking qui retourne elle-même un CompletableFuture: attendre ce dernier
+    @SuppressWarnings("unchecked")
+    private static CompletionStage<Object> flatten(Object result) {
+        return result instanceof CompletionStage
+                ? (CompletionStage<Object>) result
+                : CompletableFuture.completedFuture(result);
+    }
+
+    // Sprint 9: si annoté @JSON, retourner réponse JSON selon norme; sinon ModelView
+    private static Object toResponse(Method method, Object result) {
+        if (method.isAnnotationPresent(JSON.class)) {
+            return buildJsonResponse(result);
+        }
+
+        if (result instanceof ModelView) {
+            return result;
+        }
+
+        ModelView mv = new ModelView();
+        mv.addObject("result", result);
+        return mv;
+    }
+
+    private static Object errorResponse(MethodMapping mapping, HttpServletRequest request, Exception e) {
+        if (e instanceof HttpStatusException) {
+            // erreur du client (corps invalide, trop gros...): pas de trace complète
+            FrameworkLog.debug(() -> "⚠️ [UrlDispatcher] Requête refusée (" + status(e) + "): " + e.getMessage());
+        } else {
+            FrameworkLog.error("❌ [UrlDispatcher] Erreur lors de l'invocation: " + e.getMessage(), e);
+        }
+        SingleFlight.fail(request, e);
+        // Sprint 9: en cas d'erreur sur méthode annotée @JSON, retourner erreur JSON
+        try {
+            if (mapping != null && mapping.getMethod() != null && mapping.getMethod().isAnnotationPresent(JSON.class)) {
+                return JsonResponse.error(e.getMessage(), status(e));
+            }
+        } catch (Throwable ignored) {}
+        ModelView mv = new ModelView();
+        mv.addObject("error", "Erreur: " + e.getMessage());
+        return mv;
+    }
+
+    // Résultat asynchrone: même transformation qu'un appel synchrone, sur le thread qui termine le future.
+    // Le future transformé se termine toujours normalement (l'erreur devient une réponse d'erreur)
+    private static AsyncResult asyncResult(CompletionStage<?> stage, MethodMapping mapping, RouteMatch match,
+                                           HttpServletRequest request, RouteTable table) {
+        CompletableFuture<Object> response = new CompletableFuture<>();
+        stage.whenComplete((value, error) -> {
+            if (response.isDone()) {
+                return;  // délai dépassé: réponse déjà envoyée
+            }
             try {
-                if (mapping != null && mapping.getMethod() != null && mapping.getMethod().isAnnotationPresent(JSON.class)) {
-                    return JsonResponse.error(e.getMessage());
+                if (error == null) {
+                    mapping.evictCaches(match, table);
+                    FrameworkLog.debug(() -> "✅ [UrlDispatcher] Résultat asynchrone: " + value);
+                    response.complete(toResponse(mapping.getMethod(), value));
+                } else {
+                    response.complete(errorResponse(mapping, request, asyncError(error)));
                 }
-            } catch (Throwable ignored) {}
-            ModelView mv = new ModelView();
-            mv.addObject("error", "Erreur: " + e.getMessage());
-            return mv;
+            } catch (RuntimeException e) {
+                response.complete(errorResponse(mapping, request, e));
+            }
+        });
+        return new AsyncResult(response, () -> {
+            String message = "Délai dépassé pour " + mapping.getHttpMethod() + " " + mapping.getUrlPattern();
+            return errorResponse(mapping, request, new HttpStatusException(504, message));
+        });
+    }
+
+    // Cause réelle d'un future en erreur (CompletionException / ExecutionException enveloppent l'exception)
+    private static Exception asyncError(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof CancellationException) {
+            return new HttpStatusException(503, "Traitement annulé");
         }
+        return cause instanceof Exception ? (Exception) cause : new ExecutionException(cause);
     }
 
     // Entrée principale utilisée par FrontServlet pour Sprint 6 (avec HttpServletRequest)
     @SuppressWarnings("unchecked")
     public static Object handleRequest(String url, ServletContext ctx, HttpServletRequest request) {
-        System.out.println("\n🔍 [UrlDispatcher] Recherche correspondance pour URL: '" + url + "'");
+        FrameworkLog.debug(() -> "\n🔍 [UrlDispatcher] Recherche correspondance pour URL: '" + url + "'");
         
         if (ctx == null) {
-            System.out.println("⚠️ [UrlDispatcher] ServletContext est null!");
+            FrameworkLog.debug("⚠️ [UrlDispatcher] ServletContext est null!");
             return "Aucune correspondance trouvée pour " + url;
         }
 
         Object attr = ctx.getAttribute(StartupListener.URL_MAPPINGS_KEY);
-        System.out.println("📦 [UrlDispatcher] Mappings dans ServletContext: " + 
+        FrameworkLog.debug(() -> "📦 [UrlDispatcher] Mappings dans ServletContext: " + 
             (attr != null ? "présents" : "absents"));
         
         if (attr instanceof Map) {
             Map<String, MethodInfo> map = (Map<String, MethodInfo>) attr;
-            System.out.println("   ├─ Nombre de routes: " + map.size());
-            System.out.println("   └─ URLs disponibles: " + String.join(", ", map.keySet()));
+            FrameworkLog.debug(() -> "   ├─ Nombre de routes: " + map.size());
+            FrameworkLog.debug(() -> "   └─ URLs disponibles: " + String.join(", ", map.keySet()));
             return handleRequest(url, map, request);
         }
 
         // Si la map n'est pas présente, tenter un scan dynamique
-        System.out.println("⚠️ [UrlDispatcher] Pas de mappings - tentative de scan org.example.test");
+        FrameworkLog.debug("⚠️ [UrlDispatcher] Pas de mappings - tentative de scan org.example.test");
         try {
-            Map<String, MethodInfo> map = ClasspathScanner.scan("org.example.test");
-            if (map == null || map.isEmpty()) {
-                System.out.println("⚠️ [UrlDispatcher] Scan org.example.test vide - tentative scan org.example");
-                map = ClasspathScanner.scan("org.example");
-            }
+            Map<String, MethodInfo> map = legacyMappings(ctx);
             if (map != null) {
-                ctx.setAttribute(StartupListener.URL_MAPPINGS_KEY, map);
-                System.out.println("✅ [UrlDispatcher] Scan réussi, routes trouvées: " + map.size());
+                int found = map.size();
+                FrameworkLog.debug(() -> "✅ [UrlDispatcher] Scan réussi, routes trouvées: " + found);
                 return handleRequest(url, map, request);
             }
         } catch (Throwable t) {
-            System.err.println("❌ [UrlDispatcher] Erreur pendant scan: " + t.getMessage());
+            FrameworkLog.error("❌ [UrlDispatcher] Erreur pendant scan: " + t.getMessage());
         }
 
         ModelView mv = new ModelView();
@@ -149,6 +325,27 @@ public class UrlDispatcher {
         return mv;
     }
 
+    // Scan de secours publié une seule fois: deux requêtes simultanées ne scannent pas
+    // deux fois, et une map déjà publiée (StartupListener, RouteRegistry) n'est jamais écrasée
+    @SuppressWarnings("unchecked")
+    private static Map<String, MethodInfo> legacyMappings(ServletContext ctx) throws Exception {
+        synchronized (UrlDispatcher.class) {
+            Object attr = ctx.getAttribute(StartupListener.URL_MAPPINGS_KEY);
+            if (attr instanceof Map) {
+                return (Map<String, MethodInfo>) attr;
+            }
+            Map<String, MethodInfo> map = ClasspathScanner.scan("org.example.test");
+            if (map == null || map.isEmpty()) {
+                FrameworkLog.debug("⚠️ [UrlDispatcher] Scan org.example.test vide - tentative scan org.example");
+                map = ClasspathScanner.scan("org.example");
+            }
+            if (map != null) {
+                ctx.setAttribute(StartupListener.URL_MAPPINGS_KEY, map);
+            }
+            return map;
+        }
+    }
+
     // Ancienne entrée (sans HttpServletRequest) maintenue pour compatibilité interne
     public static Object handleRequest(String url, Map<String, MethodInfo> urlMappings) {
         return handleRequest(url, urlMappings, null);
@@ -157,7 +354,7 @@ public class UrlDispatcher {
     // Résolution avec support des arguments depuis HttpServletRequest (Sprint 6)
     public static Object handleRequest(String url, Map<String, MethodInfo> urlMappings, HttpServletRequest request) {
         if (urlMappings == null) {
-            System.out.println("⚠️ [UrlDispatcher] Map de mappings null!");
+            FrameworkLog.debug("⚠️ [UrlDispatcher] Map de mappings null!");
             ModelView mv = new ModelView();
             mv.addObject("error", "Aucune correspondance trouvée pour " + url);
             return mv;
@@ -165,25 +362,24 @@ public class UrlDispatcher {
         
         // D'abord, chercher une correspondance exacte
         MethodInfo mi = urlMappings.get(url);
-        List<String> paramValues = new ArrayList<>();
+        RouteMatch match = RouteMatch.current(url);
         
         // Si pas de correspondance exacte, chercher un pattern dynamique
         if (mi == null) {
-            System.out.println("🔎 [UrlDispatcher] Pas de correspondance exacte, recherche de pattern dynamique...");
+            FrameworkLog.debug("🔎 [UrlDispatcher] Pas de correspondance exacte, recherche de pattern dynamique...");
             for (Map.Entry<String, MethodInfo> entry : urlMappings.entrySet()) {
                 MethodInfo methodInfo = entry.getValue();
-                if (methodInfo.matches(url)) {
+                if (methodInfo.match(url, match)) {
                     mi = methodInfo;
-                    paramValues = methodInfo.extractParameters(url);
-                    System.out.println("✅ [UrlDispatcher] Pattern trouvé: " + entry.getKey() + 
-                        " avec paramètres: " + paramValues);
+                    FrameworkLog.debug(() -> "✅ [UrlDispatcher] Pattern trouvé: " + entry.getKey() + 
+                        " avec paramètres: " + match.values());
                     break;
                 }
             }
         }
         
         if (mi == null) {
-            System.out.println("⚠️ [UrlDispatcher] Aucune correspondance pour '" + url + 
+            FrameworkLog.debug(() -> "⚠️ [UrlDispatcher] Aucune correspondance pour '" + url + 
                 "' parmi " + urlMappings.size() + " routes");
             ModelView mv = new ModelView();
             mv.addObject("error", "Aucune correspondance trouvée pour " + url);
@@ -191,22 +387,29 @@ public class UrlDispatcher {
         }
         
         String controllerMethodFormat = mi.getControllerClass().getSimpleName() + "#" + mi.getMethod().getName();
-        System.out.println("✅ [UrlDispatcher] Trouvé: " + controllerMethodFormat);
+        FrameworkLog.debug(() -> "✅ [UrlDispatcher] Trouvé: " + controllerMethodFormat);
+        if (request != null) {
+            request.setAttribute(RouteOptions.REQUEST_KEY, mi.getOptions());
+        }
         
         // Invocation via reflection
         try {
-            Class<?> controllerClass = mi.getControllerClass();
             Method method = mi.getMethod();
             
-            // Créer une instance du contrôleur
-            Object instance = controllerClass.getDeclaredConstructor().newInstance();
-            
             // Préparer les arguments de la méthode
             Object result;
-            Object[] args = buildArguments(method, paramValues, request, mi);
-            result = args.length == 0 ? method.invoke(instance) : method.invoke(instance, args);
+            Object[] args = mi.bindArguments(request, match);
+
+            // Obtenir une instance du contrôleur selon son scope
+            ControllerProvider provider = mi.getControllerProvider();
+            Object instance = provider.acquire();
+            try {
+                result = mi.getInvoker().invoke(instance, args);
+            } finally {
+                provider.release(instance);
+            }
             
-            System.out.println("✅ [UrlDispatcher] Résultat de l'invocation: " + result);
+            FrameworkLog.debug(() -> "✅ [UrlDispatcher] Résultat de l'invocation: " + result);
             
             // Sprint 9: si annoté @JSON, retourner réponse JSON selon norme
             if (method.isAnnotationPresent(JSON.class)) {
@@ -223,12 +426,16 @@ public class UrlDispatcher {
             mv.addObject("result", result);
             return mv;
         } catch (Exception e) {
-            System.err.println("❌ [UrlDispatcher] Erreur lors de l'invocation: " + e.getMessage());
-            e.printStackTrace();
+            if (e instanceof HttpStatusException) {
+                // erreur du client (corps invalide, trop gros...): pas de trace complète
+                FrameworkLog.debug(() -> "⚠️ [UrlDispatcher] Requête refusée (" + status(e) + "): " + e.getMessage());
+            } else {
+                FrameworkLog.error("❌ [UrlDispatcher] Erreur lors de l'invocation: " + e.getMessage(), e);
+            }
             // Sprint 9: si annoté @JSON, retourner erreur JSON
             try {
                 if (mi != null && mi.getMethod() != null && mi.getMethod().isAnnotationPresent(JSON.class)) {
-                    return JsonResponse.error(e.getMessage());
+                    return JsonResponse.error(e.getMessage(), status(e));
                 }
             } catch (Throwable ignored) {}
             ModelView mv = new ModelView();
@@ -237,6 +444,11 @@ public class UrlDispatcher {
         }
     }
 
+    // Code HTTP de l'erreur: celui d'une HttpStatusException, sinon 500
+    private static int status(Exception e) {
+        return e instanceof HttpStatusException ? ((HttpStatusException) e).getStatus() : 500;
+    }
+
     // Sprint 9: construire la réponse JSON selon la norme donnée
     private static JsonResponse buildJsonResponse(Object result) {
         // Si le résultat est un ModelView, extraire ses données
@@ -263,130 +475,4 @@ public class UrlDispatcher {
         // Sinon, retourner l'objet tel quel
         return JsonResponse.success(result);
     }
-
-    // Surcharge pour MethodMapping (Sprint 7)
-    private static Object[] buildArguments(Method method, List<String> urlParamValues,
-                                           HttpServletRequest request, MethodMapping mapping) {
-        return buildArgumentsGeneric(method, urlParamValues, request, mapping != null ? mapping.getParameterNames() : null);
-    }
-
-    // Construit les arguments de la méthode avec ordre de priorité Sprint 6-ter:
-    // 1) Paramètres d'URL par nom (ex: {id} injected into arg "id")
-    // 2) @RequestParam pour cibler un paramètre spécifique (Sprint 6-bis)
-    // 3) Paramètres de requête par nom (request.getParameter(name)) pour Sprint 6
-    // 4) null (non trouvé)
-    private static Object[] buildArguments(Method method, List<String> urlParamValues,
-                                           HttpServletRequest request, MethodInfo mi) {
-        return buildArgumentsGeneric(method, urlParamValues, request, mi != null ? mi.getParameterNames() : null);
-    }
-
-    private static Object[] buildArgumentsGeneric(Method method, List<String> urlParamValues,
-                                                   HttpServletRequest request, List<String> urlParamNames) {
-        Class<?>[] paramTypes = method.getParameterTypes();
-        Parameter[] params = method.getParameters();
-
-        if ((paramTypes == null || paramTypes.length == 0)) {
-            return new Object[0];
-        }
-
-        Object[] args = new Object[paramTypes.length];
-        
-        // Construire une map des paramètres URL par nom (Sprint 6-ter)
-        java.util.Map<String, String> urlParams = new java.util.HashMap<>();
-        if (urlParamNames != null && urlParamValues != null) {
-            for (int i = 0; i < urlParamNames.size() && i < urlParamValues.size(); i++) {
-                urlParams.put(urlParamNames.get(i), urlParamValues.get(i));
-            }
-        }
-
-        for (int i = 0; i < paramTypes.length; i++) {
-            Class<?> type = paramTypes[i];
-
-            // Injection des objets de requête si demandés
-            if (request != null && (type == HttpServletRequest.class)) {
-                args[i] = request;
-                continue;
-            }
-
-            // SPRINT 8-BIS: Injection de Map<String, Object> depuis request.getParameterMap()
-            // Amélioration: garder String[] pour champs multiples, String pour champs simples
-            if (request != null && type == Map.class) {
-                System.out.println("🗺️ [UrlDispatcher] Sprint 8-BIS: Transformation des paramètres en Map<String, Object>");
-                java.util.Map<String, Object> paramMap = new java.util.HashMap<>();
-                
-                // Récupérer request.getParameterMap() qui retourne Map<String, String[]>
-                java.util.Map<String, String[]> rawParams = request.getParameterMap();
-                
-                // Parcourir dynamiquement et transformer String[] en Object
-                // OPTION 1 (Sprint 8-BIS): Si 1 seule valeur → String, sinon → String[]
-                for (java.util.Map.Entry<String, String[]> entry : rawParams.entrySet()) {
-                    String key = entry.getKey();
-                    String[] values = entry.getValue();
-                    
-                    // SPRINT 8-BIS: Préserver les données multiples (checkboxes, select multiple, etc.)
-                    Object value = (values != null && values.length == 1) ? values[0] : values;
-                    paramMap.put(key, value);
-                    
-                    if (values != null && values.length > 1) {
-                        System.out.println("   └─ " + key + " (multi) = " + java.util.Arrays.toString(values));
-                    } else {
-                        System.out.println("   └─ " + key + " = " + value);
-                    }
-                }
-                
-                args[i] = paramMap;
-                continue;
-            }
-
-            String raw = null;
-            Parameter param = params[i];
-            String argName = param.getName();
-
-            // Sprint 6-ter: Priorité 1 - Chercher le paramètre dans les params d'URL par nom
-            if (urlParams.containsKey(argName)) {
-                raw = urlParams.get(argName);
-                System.out.println("   └─ URL param {" + argName + "} -> " + raw);
-            }
-            // Sprint 6-bis: Priorité 2 - Vérifier @RequestParam
-            else if (param.getAnnotation(RequestParam.class) != null && request != null) {
-                RequestParam requestParamAnnotation = param.getAnnotation(RequestParam.class);
-                String paramKey = requestParamAnnotation.value();
-                raw = request.getParameter(paramKey);
-                System.out.println("   └─ @RequestParam(\"" + paramKey + "\") -> " + raw);
-            }
-            // Sprint 6: Priorité 3 - Paramètres de requête par nom d'argument
-            else if (request != null) {
-                raw = request.getParameter(argName);
-                if (raw != null) {
-                    System.out.println("   └─ Query param '" + argName + "' -> " + raw);
-                }
-            }
-
-            // Conversion de la chaîne en type attendu
-            args[i] = convert(raw, type);
-        }
-
-        return args;
-    }
-
-    private static Object convert(String value, Class<?> targetType) {
-        if (value == null) {
-            return null;
-        }
-        try {
-            if (targetType == String.class) return value;
-            if (targetType == int.class || targetType == Integer.class) return Integer.parseInt(value);
-            if (targetType == long.class || targetType == Long.class) return Long.parseLong(value);
-            if (targetType == double.class || targetType == Double.class) return Double.parseDouble(value);
-            if (targetType == float.class || targetType == Float.class) return Float.parseFloat(value);
-            if (targetType == boolean.class || targetType == Boolean.class) return Boolean.parseBoolean(value);
-            if (targetType == short.class || targetType == Short.class) return Short.parseShort(value);
-            if (targetType == byte.class || targetType == Byte.class) return Byte.parseByte(value);
-        } catch (Exception e) {
-            System.err.println("⚠️ [UrlDispatcher] Conversion échouée pour valeur '" + value + "' en " + targetType.getSimpleName());
-            return null;
-        }
-        // Types non gérés: retourner brut
-        return value;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package org.example.outils;
+
+import java.util.function.Supplier;
+
+/**
+ * Résultat @JSON accompagné d'une version connue à l'avance (numéro, horodatage...).
+ *
+ * Le contrôleur renvoie la version et un fournisseur des données; si le client
+ * possède déjà cette version (If-None-Match / If-Modified-Since), la réponse est
+ * un 304 et le fournisseur n'est jamais appelé: ni chargement ni sérialisation.
+ *
+ * Usage: {@code return Versioned.of(product.getRevision(), () -> loadDetails(id));}
+ */
+public final class Versioned<T> {
+    private final String etag;
+    private final long lastModified;
+    private final Supplier<T> data;
+
+    private Versioned(String etag, long lastModified, Supplier<T> data) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.data = data;
+    }
+
+    /**
+     * Version opaque: l'ETag est dérivé de version.toString().
+     */
+    public static <T> Versioned<T> of(Object version, Supplier<T> data) {
+        if (version == null) {
+            throw new IllegalArgumentException("version null");
+        }
+        return new Versioned<>(ETags.fromVersion(version.toString()), -1, data);
+    }
+
+    /**
+     * Date de dernière modification (millisecondes epoch): Last-Modified et ETag.
+     */
+    public static <T> Versioned<T> lastModified(long millis, Supplier<T> data) {
+        long seconds = millis / 1000 * 1000;  // précision HTTP: la seconde
+        return new Versioned<>(ETags.fromVersion(Long.toHexString(seconds)), seconds, data);
+    }
+
+    public String getETag() {
+        return etag;
+    }
+
+    /**
+     * Date de dernière modification, -1 si inconnue.
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public T get() {
+        return data.get();
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.outils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Lecteur JSON: garde-fous (413 / 400), nombres, échappements, liaison vers POJO et record.
+ */
+public class JsonReaderTest {
+
+    // DTO non publics: la disposition habituelle (classe de paquetage / interne)
+    static class Address {
+        private String city;
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+
+    static class Person {
+        private String name;
+        private int age;
+        private Address address;
+        List<Address> previous;
+        boolean active = true;
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+    }
+
+    record Point(int x, int y, String label) {
+    }
+
+    private static Object read(String json, Type type) throws IOException {
+        return read(json, type, 1 << 20, 32);
+    }
+
+    private static Object read(String json, Type type, long maxBytes, int maxDepth) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        try (JsonReader reader = new JsonReader(new ByteArrayInputStream(bytes), maxBytes, maxDepth)) {
+            return reader.readDocument(type);
+        }
+    }
+
+    private static int status(String json, Type type) throws IOException {
+        return status(json, type, 1 << 20, 32);
+    }
+
+    private static int status(String json, Type type, long maxBytes, int maxDepth) throws IOException {
+        try {
+            read(json, type, maxBytes, maxDepth);
+        } catch (HttpStatusException e) {
+            return e.getStatus();
+        }
+        fail("HttpStatusException attendue pour " + json);
+        return -1;
+    }
+
+    // ---------------------------------------------------------------- garde-fous
+
+    @Test
+    public void bodyOverMaxBytesIs413() throws IOException {
+        String json = "{\"name\":\"" + "x".repeat(20_000) + "\"}";
+        assertEquals(413, status(json, Map.class, 1024, 32));
+    }
+
+    @Test
+    public void bodyUnderMaxBytesIsRead() throws IOException {
+        Map<?, ?> map = (Map<?, ?>) read("{\"name\":\"bob\"}", Map.class, 1024, 32);
+        assertEquals("bob", map.get("name"));
+    }
+
+    @Test
+    public void nestingOverMaxDepthIs400() throws IOException {
+        String json = "[".repeat(10) + "]".repeat(10);
+        assertEquals(400, status(json, Object.class, 1 << 20, 5));
+        assertTrue(read(json, Object.class, 1 << 20, 10) instanceof List);
+    }
+
+    @Test
+    public void depthLimitAppliesToSkippedValues() throws IOException {
+        String json = "{\"unknown\":" + "[".repeat(10) + "]".repeat(10) + ",\"name\":\"bob\"}";
+        assertEquals(400, status(json, Person.class, 1 << 20, 5));
+    }
+
+    // ---------------------------------------------------------------- jetons invalides
+
+    @Test
+    public void malformedNumbersAre400() throws IOException {
+        for (String number : new String[] {"1e", "--1", "1-2", "01", "1.", "-", "1e+", "1.e5"}) {
+            assertEquals(number, 400, status("{\"id\":" + number + "}", Map.class));
+        }
+    }
+
+    @Test
+    public void malformedNumberInTypedFieldIs400() throws IOException {
+        assertEquals(400, status("{\"age\":--1}", Person.class));
+    }
+
+    @Test
+    public void badUnicodeEscapeIs400() throws IOException {
+        assertEquals(400, status("{\"name\":\"\\u12G4\"}", Map.class));
+        assertEquals(400, status("{\"name\":\"\\u12\"}", Map.class));
+        assertEquals(400, status("{\"name\":\"\\x\"}", Map.class));
+    }
+
+    @Test
+    public void structuralErrorsAre400() throws IOException {
+        assertEquals(400, status("{\"name\":\"bob\"", Map.class));
+        assertEquals(400, status("{\"name\" \"bob\"}", Map.class));
+        assertEquals(400, status("{\"name\":\"bob\"} x", Map.class));
+        assertEquals(400, status("[1 2]", Object.class));
+        assertEquals(400, status("\"unterminated", Object.class));
+        assertEquals(400, status("tru", Object.class));
+    }
+
+    // ---------------------------------------------------------------- valeurs
+
+    @Test
+    public void untypedNumbers() throws IOException {
+        Map<?, ?> map = (Map<?, ?>) read("{\"small\":42,\"big\":12345678901234567890,"
+                + "\"min\":-9223372036854775808,\"decimal\":1.5e3}", Map.class);
+        assertEquals(42L, map.get("small"));
+        assertEquals(new BigInteger("12345678901234567890"), map.get("big"));
+        assertEquals(Long.MIN_VALUE, map.get("min"));
+        assertEquals(new BigDecimal("1.5e3"), map.get("decimal"));
+    }
+
+    @Test
+    public void escapesAndUnicode() throws IOException {
+        assertEquals("a\"b\\c/\n\u00e9\u20ac", read("\"a\\\"b\\\\c\\/\\n\\u00e9€\"", Object.class));
+    }
+
+    @Test
+    public void emptyBodyIsNull() throws IOException {
+        assertNull(read("  ", Person.class));
+    }
+
+    // ---------------------------------------------------------------- liaison
+
+    @Test
+    public void bindsNonPublicPojo() throws IOException {
+        Person person = (Person) read("{\"name\":\"bob\",\"age\":31,\"address\":{\"city\":\"Paris\"},"
+                + "\"previous\":[{\"city\":\"Lyon\"},{\"city\":\"Lille\"}]}", Person.class);
+        assertEquals("bob", person.name);
+        assertEquals(31, person.age);
+        assertEquals("Paris", person.address.city);
+        assertEquals(2, person.previous.size());
+        assertEquals("Lille", person.previous.get(1).city);
+        assertTrue("valeur par défaut conservée", person.active);
+    }
+
+    @Test
+    public void skipsUnknownProperties() throws IOException {
+        Person person = (Person) read("{\"extra\":{\"a\":[1,2,{\"b\":null}],\"c\":\"}\"},\"name\":\"bob\","
+                + "\"more\":[true,false,-1.5e-3]}", Person.class);
+        assertEquals("bob", person.name);
+        assertEquals(0, person.age);
+    }
+
+    @Test
+    public void bindsRecord() throws IOException {
+        Point point = (Point) read("{\"y\":2,\"x\":1,\"label\":\"p\",\"z\":9}", Point.class);
+        assertEquals(new Point(1, 2, "p"), point);
+    }
+
+    @Test
+    public void recordMissingComponentsGetDefaults() throws IOException {
+        assertEquals(new Point(0, 5, null), read("{\"y\":5}", Point.class));
+    }
+
+    @Test
+    public void wrongTypeForFieldIs400() throws IOException {
+        assertEquals(400, status("{\"age\":\"abc\"}", Person.class));
+        assertEquals(400, status("{\"address\":[1]}", Person.class));
+    }
+}